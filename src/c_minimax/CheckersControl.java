@@ -0,0 +1,168 @@
+package c_minimax;
+
+import javafx.application.Platform;
+
+public class CheckersControl implements InterfaceControl {
+    // The controller of checkers, which (as Connect4Control) is also the model:
+    //   it keeps the position of the game, only lets legal moves be played (CheckersPosition.generateMoves()),
+    //   finds the winner, and asks a strategy for a move when a strategy plays.
+    // The view reports a manual move as onMove(i0C,i0R,i1C,i1R,iPlayer): from (i0C,i0R) to (i1C,i1R),
+    //   where a multi-jump goes straight to its last square. The controller shows the moves played with
+    //   performMove() and then the whole position (captures and crownings included) with showPosition().
+    // As in TicTacToeControl, a strategy searches on a background thread; its move is played on the JavaFX
+    //   application thread, unless the search was cancelled meanwhile (by a new game or a change of strategy).
+
+    private CheckersView      view;
+    private CheckersPosition  position        = new CheckersPosition();
+    private InterfaceStrategy strategy1       = null;
+    private InterfaceStrategy strategy2       = null;
+    private int               strategyChoice1 = 0; // Index into the view's strategy choices (0 is manual)
+    private int               strategyChoice2 = 0;
+    private static final int  MAX_SEARCH_TIME = 2000; // ms per move
+    private ThreadStrategy    searchThread    = null; // The strategy search in flight, if any (only used on the FX thread)
+    private final long[]      moves           = new long[CheckersPosition.MAX_MOVES];
+
+    @Override
+    public void setView(InterfaceView view) {
+        if ( view instanceof CheckersView ) {
+            this.view = (CheckersView) view;
+        } else
+            System.err.println("Error: CheckersControl cannot accept this type of InterfaceView");
+    }
+
+    @Override
+    public InterfaceView getView() { return view; }
+
+    @Override
+    public void setStrategy( int player, int strategy ) {
+        InterfaceStrategy playerStrategy = newStrategy(strategy); // null for manual
+        if (player==1) {
+            strategy1       = playerStrategy;
+            strategyChoice1 = strategy;
+        } else {
+            strategy2       = playerStrategy;
+            strategyChoice2 = strategy;
+        }
+        onMove(); // Cancel the search of the old strategy, and check if anything needs to be done via a strategy
+    }
+
+    private InterfaceStrategy newStrategy( int strategy ) {
+        switch (strategy) {
+        case 1:  return new CheckersStrategy(); // StrtgyA: alpha-beta with quiescence
+        default: return null;                   // Manual
+        }
+    }
+
+    @Override
+    public int getStrategy( int player ) {
+        if (player==1) return strategyChoice1;
+        else           return strategyChoice2;
+    }
+
+    private InterfaceStrategy strategyToMove() {
+        return position.getPlayer() == 1 ? strategy1 : strategy2;
+    }
+
+    @Override
+    public void onMove() { // Control is notified of a move (or a change): let a strategy move if one plays now
+        cancelSearch(); // The position it was searching has changed
+        if (position.isWinner() != -1) return;
+        InterfaceStrategy strategy = strategyToMove();
+        if (strategy == null) return; // Manual
+
+        final CheckersPosition    searched  = new CheckersPosition(position);
+        final InterfaceSearchInfo context   = new TicTacToeSearchInfo();
+        context.setMaxSearchTimeForThisPos(MAX_SEARCH_TIME);
+        final long                startTime = System.nanoTime(); // Start the total timing
+        final ThreadStrategy      thread    = new ThreadStrategy(strategy, searched, context);
+        thread.setDaemon(true); // Do not keep the application alive on exit
+        thread.addListener(new ThreadCompleteListener() {
+            @Override public void notifyOfThreadComplete(Thread completed) {
+                Platform.runLater(new Runnable() {
+                    @Override public void run() { onSearchComplete(thread, searched, context, startTime); }
+                });
+            }
+        });
+        searchThread = thread;
+        thread.start();
+    }
+
+    private void onSearchComplete(ThreadStrategy thread, CheckersPosition searched, InterfaceSearchInfo context, long startTime) {
+        if (thread != searchThread) return; // Cancelled
+        searchThread = null;
+        long endTime  = System.nanoTime(); // Finish the total timing
+        System.out.println("This move computation took:   " + ((double)(endTime - startTime)/1000000.0) + " milliseconds, "
+                           + ((TicTacToeSearchInfo)context).getNodeCount() + " nodes; " + ((TicTacToeSearchInfo)context).getMetrics());
+        InterfacePosition after = ((TicTacToeSearchInfo) context).getBestGameState();
+        long move = after == null ? 0 : moveTo((CheckersPosition) after);
+        if (move == 0) {
+            System.err.println("Error: CheckersControl: the strategy did not find a move");
+            return;
+        }
+        play(move);
+    }
+
+    // The legal move that leads to after (0 if none)
+    private long moveTo(CheckersPosition after) {
+        int nMoves = position.generateMoves(moves);
+        for (int i = 0; i < nMoves; i++) {
+            CheckersPosition next = new CheckersPosition(position);
+            next.makeMove(moves[i]);
+            if (next.getHashKey() == after.getHashKey()) return moves[i];
+        }
+        return 0;
+    }
+
+    private void cancelSearch() {
+        if (searchThread != null) {
+            ((TicTacToeSearchInfo) searchThread.getContext()).cancel();
+            searchThread = null;
+        }
+    }
+
+    @Override
+    public void onMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // A manual move from (i0C,i0R) to (i1C,i1R)
+        if (isBlockManualMove()) return;
+        int from = CheckersPosition.square(i0C, i0R), to = CheckersPosition.square(i1C, i1R);
+        int nMoves = position.generateMoves(moves);
+        for (int i = 0; i < nMoves; i++) {
+            if (CheckersPosition.from(moves[i]) == from && CheckersPosition.to(moves[i]) == to) {
+                play(moves[i]); // Of two multi-jumps between the same squares, the first
+                return;
+            }
+        }
+        view.showStatus("Not a legal move" + (CheckersPosition.captured(moves[0]) != 0 ? " (a capture is compulsory)" : ""));
+    }
+
+    private void play( long move ) {
+        int player = position.getPlayer();
+        int from   = CheckersPosition.from(move), to = CheckersPosition.to(move);
+        position.makeMove(move);
+        view.performMove(CheckersPosition.column(from), CheckersPosition.row(from),
+                         CheckersPosition.column(to),   CheckersPosition.row(to), player);
+        view.showPosition(position);
+        showStatus();
+        onMove();
+    }
+
+    private void showStatus() {
+        int winner = position.isWinner();
+        if      (winner == -1) view.showStatus("Player " + position.getPlayer() + " to move");
+        else if (winner ==  0) view.showStatus("Draw");
+        else                   view.showStatus("Player " + winner + " wins");
+    }
+
+    @Override
+    public void resetGame() {
+        cancelSearch(); // It was searching a position of the old game
+        position.reset();
+        view.showPosition(position);
+        showStatus();
+        onMove();
+    }
+
+    @Override
+    public boolean isBlockManualMove() { // The game is over, or a strategy plays the player to move
+        return position.isWinner() != -1 || strategyToMove() != null;
+    }
+}
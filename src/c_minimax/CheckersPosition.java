@@ -0,0 +1,348 @@
+package c_minimax;
+
+public class CheckersPosition implements InterfacePosition {
+    // Checkers (English draughts) on the 32 dark squares of an 8x8 board.
+    // Player 1 starts on rows 0-2 and moves up (toward row 7), player 2 starts on rows 5-7 and moves down.
+    //   Men move one square diagonally forward, kings (crowned on the far row) forward or backward.
+    //   Capturing is compulsory, and a capture continues as long as the same piece can jump again (a multi-jump),
+    //   except that a man that reaches the far row is crowned and its move ends. Captured pieces are removed at the end
+    //   of the move: they block the jumping piece and cannot be jumped twice.
+    //   A player who cannot move loses. DRAW_PLIES plies in a row with only king moves and no capture are a draw.
+    // "Color" is convention, only integers are returned or set.
+    // 0-empty, 1-man of player 1, 2-man of player 2, 3-king of player 1, 4-king of player 2
+    //   (the light squares, (iC+iR) odd, are always empty)
+
+    // Bitboards are ints, one bit per dark square: square s is on row s/4, column 2*(s%4) + (s/4)%2.
+    //   So a diagonal step is a shift by 3, 4 or 5 depending on the parity of the row (see step()),
+    //   and the pieces that can move or jump in a direction are found for all squares at once.
+    // Moves are longs: bits 0-4 the square moved from, 5-9 the square moved to, 32-63 the bitboard of captured pieces.
+    //   Generating into a caller's long[] and playing moves on bitboards lets a search run without allocating.
+
+    static final int N_SQUARES   = 32;
+    static final int DRAW_PLIES  = 80;
+    static final int MAX_MOVES   = 64;  // More than the legal moves of any position
+    static final int UP_LEFT     = 0;
+    static final int UP_RIGHT    = 1;
+    static final int DOWN_LEFT   = 2;
+    static final int DOWN_RIGHT  = 3;
+    private static final int EVEN_ROWS   = 0x0F0F0F0F;
+    private static final int ODD_ROWS    = 0xF0F0F0F0;
+    private static final int LEFT_EDGE   = 0x11111111; // Squares in column 0 (even rows) or 1 (odd rows)
+    private static final int RIGHT_EDGE  = 0x88888888; // Squares in column 6 (even rows) or 7 (odd rows)
+    private static final int START_1     = 0x00000FFF; // Rows 0-2
+    private static final int START_2     = 0xFFF00000; // Rows 5-7
+
+    // Evaluation, in points; a win is worth WIN (less the plies it takes)
+    static final int WIN        = 10000;
+    static final int MAN        = 100;
+    static final int KING       = 130;
+    static final int BACK_RANK  = 6;   // Per man on its own first row, which keeps the opponent from crowning
+    static final int ADVANCE    = 2;   // Per row a man has advanced
+
+    private int pieces1    = START_1;
+    private int pieces2    = START_2;
+    private int kings      = 0;
+    private int player     = 1;
+    private int quietPlies = 0;        // Plies in a row with only king moves and no capture
+
+    CheckersPosition() { } // The starting position
+
+    CheckersPosition( InterfacePosition pos ) { // Copy; pos must be a CheckersPosition
+        CheckersPosition other = (CheckersPosition) pos;
+        pieces1    = other.pieces1;
+        pieces2    = other.pieces2;
+        kings      = other.kings;
+        player     = other.player;
+        quietPlies = other.quietPlies;
+    }
+
+    @Override public int nC() { return 8; }
+    @Override public int nR() { return 8; }
+
+    int getPieces( int iPlayer ) { return iPlayer == 1 ? pieces1 : pieces2; }
+    int getKings()               { return kings;      }
+    int getQuietPlies()          { return quietPlies; }
+
+    // Square index of (iC,iR), or -1 for a light square
+    static int square( int iC, int iR ) {
+        if (iC < 0 || iC >= 8 || iR < 0 || iR >= 8 || ((iC + iR) & 1) != 0) return -1;
+        return 4*iR + iC/2;
+    }
+    static int column( int square ) { return 2*(square & 3) + ((square >>> 2) & 1); }
+    static int row(    int square ) { return square >>> 2; }
+
+    static int promotionRow( int iPlayer ) { return iPlayer == 1 ? 0xF0000000 : 0x0000000F; }
+
+    // The squares one diagonal step from the squares of bits in direction dir (off-board steps are dropped)
+    static int step( int bits, int dir ) {
+        switch (dir) {
+        case UP_LEFT:   return ((bits & EVEN_ROWS & ~LEFT_EDGE ) <<  3) | ((bits & ODD_ROWS) <<  4);
+        case UP_RIGHT:  return ((bits & EVEN_ROWS) <<  4) | ((bits & ODD_ROWS & ~RIGHT_EDGE) <<  5);
+        case DOWN_LEFT: return ((bits & EVEN_ROWS & ~LEFT_EDGE ) >>> 5) | ((bits & ODD_ROWS) >>> 4);
+        default:        return ((bits & EVEN_ROWS) >>> 4) | ((bits & ODD_ROWS & ~RIGHT_EDGE) >>> 3);
+        }
+    }
+
+    private static int opposite( int dir ) { return dir ^ 3; } // UP_LEFT <-> DOWN_RIGHT, UP_RIGHT <-> DOWN_LEFT
+
+    // The directions a piece of iPlayer moves in: men only forward, kings both ways
+    private static int firstDir( int iPlayer, boolean isKing ) { return isKing || iPlayer == 1 ? UP_LEFT  : DOWN_LEFT;  }
+    private static int lastDir(  int iPlayer, boolean isKing ) { return isKing || iPlayer == 2 ? DOWN_RIGHT : UP_RIGHT; }
+    private static boolean isForward( int dir, int iPlayer )  { return (dir <= UP_RIGHT) == (iPlayer == 1); }
+
+    static long move( int from, int to, int captured ) {
+        return from | (to << 5) | ((long) captured << 32);
+    }
+    static int from(     long move ) { return (int) move & 0x1F;         }
+    static int to(       long move ) { return ((int) move >>> 5) & 0x1F; }
+    static int captured( long move ) { return (int) (move >>> 32);       }
+
+    // The pieces of the player who moved, after move
+    static int movedPieces( int pieces, long move ) {
+        return (pieces & ~(1 << from(move))) | (1 << to(move));
+    }
+    // The kings of both players after iPlayer played move (a man reaching the far row is crowned)
+    static int movedKings( int kings, long move, int iPlayer ) {
+        int fromBit = 1 << from(move), toBit = 1 << to(move);
+        kings &= ~captured(move);
+        if ((kings & fromBit) != 0) return (kings & ~fromBit) | toBit;
+        return (toBit & promotionRow(iPlayer)) != 0 ? kings | toBit : kings;
+    }
+
+    // The legal moves of iPlayer into moves[offset..]: the captures if there are any (capturing is compulsory),
+    //   else the steps. Returns how many there are (0 if iPlayer cannot move, i.e., has lost).
+    static int generateMoves( int pieces1, int pieces2, int kings, int iPlayer, long[] moves, int offset ) {
+        int nMoves = generateCaptures(pieces1, pieces2, kings, iPlayer, moves, offset);
+        if (nMoves > 0) return nMoves;
+        int own   = iPlayer == 1 ? pieces1 : pieces2;
+        int empty = ~(pieces1 | pieces2);
+        int end   = offset;
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            int movers  = isForward(dir, iPlayer) ? own : own & kings;
+            int targets = step(movers, dir) & empty;
+            while (targets != 0) {
+                int to = Integer.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                moves[end++] = move(Integer.numberOfTrailingZeros(step(1 << to, opposite(dir))), to, 0);
+            }
+        }
+        return end - offset;
+    }
+
+    // The captures of iPlayer into moves[offset..] (each multi-jump is one move, from its first square to its last);
+    //   returns how many there are
+    static int generateCaptures( int pieces1, int pieces2, int kings, int iPlayer, long[] moves, int offset ) {
+        int own      = iPlayer == 1 ? pieces1 : pieces2;
+        int opponent = iPlayer == 1 ? pieces2 : pieces1;
+        int jumpers  = jumpers(own, opponent, kings, iPlayer);
+        int end      = offset;
+        while (jumpers != 0) {
+            int from = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            int empty = ~(pieces1 | pieces2) | (1 << from); // The jumping piece has left its square
+            end = jump(from, 1 << from, (kings & (1 << from)) != 0, iPlayer, opponent, 0, empty, moves, offset, end);
+        }
+        return end - offset;
+    }
+
+    // The pieces of own that can capture now
+    static int jumpers( int own, int opponent, int kings, int iPlayer ) {
+        int empty   = ~(own | opponent);
+        int jumpers = 0;
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            int movers = isForward(dir, iPlayer) ? own : own & kings;
+            int back   = opposite(dir);
+            jumpers |= step(step(step(step(movers, dir) & opponent, dir) & empty, back), back);
+        }
+        return jumpers;
+    }
+
+    // Extends a capture that has reached at (from from, having captured captured) by every further jump;
+    //   where none is possible, the capture ends and is added to moves[offset..end-1]. Returns the new end.
+    private static int jump( int from, int at, boolean isKing, int iPlayer, int opponent, int captured, int empty,
+                             long[] moves, int offset, int end ) {
+        boolean extended = false;
+        for (int dir = firstDir(iPlayer, isKing); dir <= lastDir(iPlayer, isKing); dir++) {
+            int over = step(at, dir) & opponent & ~captured;
+            if (over == 0) continue;
+            int landing = step(over, dir) & empty;
+            if (landing == 0) continue;
+            extended = true;
+            if (!isKing && (landing & promotionRow(iPlayer)) != 0) { // Crowned: the move ends here
+                end = add(moves, offset, end, move(from, Integer.numberOfTrailingZeros(landing), captured | over));
+            } else {
+                end = jump(from, landing, isKing, iPlayer, opponent, captured | over, empty, moves, offset, end);
+            }
+        }
+        if (!extended && captured != 0) {
+            end = add(moves, offset, end, move(from, Integer.numberOfTrailingZeros(at), captured));
+        }
+        return end;
+    }
+
+    private static int add( long[] moves, int offset, int end, long move ) { // Two paths of one multi-jump are one move
+        for (int i = end-1; i >= offset && from(moves[i]) == from(move); i--) {
+            if (moves[i] == move) return end;
+        }
+        moves[end] = move;
+        return end + 1;
+    }
+
+    // Number of leaf positions depth plies below a position (a test and benchmark of move generation);
+    //   moves[offset..] needs MAX_MOVES per ply of depth
+    static long perft( int pieces1, int pieces2, int kings, int iPlayer, int depth, long[] moves, int offset ) {
+        int nMoves = generateMoves(pieces1, pieces2, kings, iPlayer, moves, offset);
+        if (depth <= 1) return depth == 1 ? nMoves : 1;
+        long leaves = 0;
+        for (int i = offset; i < offset + nMoves; i++) {
+            long move = moves[i];
+            int  p1   = iPlayer == 1 ? movedPieces(pieces1, move) : pieces1 & ~captured(move);
+            int  p2   = iPlayer == 2 ? movedPieces(pieces2, move) : pieces2 & ~captured(move);
+            leaves += perft(p1, p2, movedKings(kings, move, iPlayer), 3-iPlayer, depth-1, moves, offset + MAX_MOVES);
+        }
+        return leaves;
+    }
+
+    long perft( int depth ) {
+        return perft(pieces1, pieces2, kings, player, depth, new long[Math.max(1, depth) * MAX_MOVES], 0);
+    }
+
+    // The legal moves of the player to move (see generateMoves())
+    int generateMoves( long[] moves ) {
+        return generateMoves(pieces1, pieces2, kings, player, moves, 0);
+    }
+
+    // Plays move (one of generateMoves()) for the player to move, and passes the turn
+    void makeMove( long move ) {
+        boolean isQuiet = captured(move) == 0 && (kings & (1 << from(move))) != 0;
+        kings = movedKings(kings, move, player);
+        if (player == 1) { pieces1 = movedPieces(pieces1, move); pieces2 &= ~captured(move); }
+        else             { pieces2 = movedPieces(pieces2, move); pieces1 &= ~captured(move); }
+        quietPlies = isQuiet ? quietPlies + 1 : 0;
+        player     = 3 - player;
+    }
+
+    // 64-bit hash of a position: not a Zobrist key (a king is a third kind of piece, which ZobristKeys does not have),
+    //   but a mix of the bitboards, computed from scratch in a few multiplications
+    static long hash( int pieces1, int pieces2, int kings, int iPlayer ) {
+        long h = mix((pieces1 & 0xFFFFFFFFL) | ((long) pieces2 << 32));
+        return mix(h ^ (kings & 0xFFFFFFFFL) ^ ((long) iPlayer << 40));
+    }
+
+    private static long mix( long z ) { // The finalizer of SplitMix64 (as in ZobristKeys)
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Checkers has no symmetry that keeps the player to move, so every symmetry is the position itself.
+    @Override public long getHashKey()                 { return hash(pieces1, pieces2, kings, player); }
+    @Override public long getHashKey( int symmetry )   { return getHashKey(); }
+    @Override public int  getCanonicalSymmetry()       { return 0; }
+
+    @Override
+    public long getRawPosition() { // 97 bits of position do not fit a long, so this is the hash
+        return getHashKey();
+    }
+
+    @Override
+    public int getColor( InterfaceIterator iPos ) {
+        int square = square(iPos.iC(), iPos.iR());
+        if (square < 0) return 0;
+        int bit  = 1 << square;
+        int king = (kings & bit) != 0 ? 2 : 0;
+        return (pieces1 & bit) != 0 ? 1 + king : (pieces2 & bit) != 0 ? 2 + king : 0;
+    }
+
+    @Override
+    public void setColor( InterfaceIterator iPos, int color ) { // 1-4 (see above); 0 empties the square
+        int square = square(iPos.iC(), iPos.iR());
+        if (square < 0 || color < 0 || color > 4) {
+            System.err.println("Error(CheckersPosition::setColor): color "+color+" cannot be set on ("+iPos.iC()+","+iPos.iR()+")");
+            return;
+        }
+        clearColor(iPos);
+        if (color == 0) return;
+        int bit = 1 << square;
+        if (color % 2 == 1) pieces1 |= bit;
+        else                pieces2 |= bit;
+        if (color > 2)      kings   |= bit;
+    }
+
+    @Override
+    public void clearColor( InterfaceIterator iPos ) {
+        int square = square(iPos.iC(), iPos.iR());
+        if (square < 0) return;
+        int bit = ~(1 << square);
+        pieces1 &= bit;
+        pieces2 &= bit;
+        kings   &= bit;
+    }
+
+    @Override
+    public int isWinner() {
+        //      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
+        //      else if draw, return 0
+        //      else if neither winner nor draw, return -1
+        if (generateMoves(new long[MAX_MOVES]) == 0) return 3 - player; // Cannot move: lost
+        return quietPlies >= DRAW_PLIES ? 0 : -1;
+    }
+
+    @Override
+    public void reset() { // The starting position
+        pieces1    = START_1;
+        pieces2    = START_2;
+        kings      = 0;
+        player     = 1;
+        quietPlies = 0;
+    }
+
+    @Override
+    public void setPlayer(int iPlayer) { // Only 1 or 2 are valid
+        if ( !(0<iPlayer && iPlayer<3) ) {
+            System.err.println("Error(CheckersPosition::setPlayer): iPlayer ("+iPlayer+") out of bounds!!!");
+        } else {
+            player = iPlayer;
+        }
+    }
+
+    @Override
+    public int getPlayer() {
+        return player;
+    }
+
+    // Static evaluation in points, from the point of view of iPlayer: material, men on their own first row,
+    //   and how far men have advanced
+    static int evaluate( int pieces1, int pieces2, int kings, int iPlayer ) {
+        int men1 = pieces1 & ~kings, men2 = pieces2 & ~kings;
+        int score = MAN  * (Integer.bitCount(men1) - Integer.bitCount(men2))
+                  + KING * (Integer.bitCount(pieces1 & kings) - Integer.bitCount(pieces2 & kings))
+                  + BACK_RANK * (Integer.bitCount(men1 & 0x0000000F) - Integer.bitCount(men2 & 0xF0000000));
+        for (int iR = 1; iR < 7; iR++) {
+            int row = 0xF << 4*iR;
+            score += ADVANCE * (iR * Integer.bitCount(men1 & row) - (7-iR) * Integer.bitCount(men2 & row));
+        }
+        return iPlayer == 1 ? score : -score;
+    }
+
+    @Override
+    public float valuePosition() {
+        // evaluate() squashed into (-1,1), from the point of view of the player to move: a man ahead is about 0.2
+        float score = evaluate(pieces1, pieces2, kings, player);
+        return score / (Math.abs(score) + 4*MAN);
+    }
+
+    //for debugging
+    public String toString() {
+        StringBuilder state = new StringBuilder();
+        InterfaceIterator iPos = new TicTacToeIterator(8, 8);
+        for (int iR = 7; iR >= 0; iR--) {
+            for (int iC = 0; iC < 8; iC++) {
+                iPos.set(iC, iR);
+                state.append(".xoXO".charAt(getColor(iPos)));
+            }
+            state.append("\n");
+        }
+        return state.toString();
+    }
+}
@@ -0,0 +1,264 @@
+package c_minimax;
+
+public class CheckersStrategy implements InterfaceStrategy {
+    // Checkers engine: iterative deepening over a negamax search with an alpha-beta window, on the bitboards of
+    //   CheckersPosition (three ints per ply, kept in arrays), with moves generated into one long[] (MAX_MOVES per ply),
+    //   so once set up the search allocates nothing.
+    // At the depth limit, a quiescence search plays on while there are captures (which are compulsory, so there is no
+    //   standing pat while one is available), and only scores quiet positions with CheckersPosition.evaluate().
+    // Scores are in points, from the point of view of the player to move; a win is WIN less the plies it takes.
+    // The transposition table is keyed by CheckersPosition.hash(); its packed values are laid out for checkers:
+    //   bits 0-15  score (signed; win scores relative to the position, not to the root)
+    //   bits 16-17 bound type (TicTacToeTranspositionTable.BOUND_*)
+    //   bits 18-25 depth, where TicTacToeTranspositionTable.depth() finds it, for LockFreeTranspositionTable's policies
+    //   bits 26-31 the best move, as its index in the order generateMoves() produces (NO_MOVE if none)
+    // Moves are tried: the best move saved in the table (or of the previous iteration) first, then the captures that
+    //   take the most pieces, then by history (how often, weighted by depth^2, a move caused a cutoff).
+    // getBestMove() puts the position after the best move in the context (setBestMoveSoFar(iPos, score, gameState)),
+    //   since a move is two squares (or more, for a multi-jump); iPos is the square moved to.
+    // Without a time limit (or a max depth) in the context, a move is searched for DEFAULT_TIME ms.
+    // The search stops, as if out of time, once the context passed to getBestMove() is cancelled.
+
+    static final int TABLE_CAPACITY = 1 << 20;
+    static final int DEFAULT_TIME   = 1000; // ms
+    static final int MAX_PLY        = 128;  // Of the search and quiescence together
+    private static final int WIN       = CheckersPosition.WIN;
+    private static final int MAX_MOVES = CheckersPosition.MAX_MOVES;
+    private static final int NO_MOVE   = 63;
+    private static final int TIME_CHECK_INTERVAL = 1 << 10; // Nodes between checks of the deadline
+
+    private InterfaceTranspositionTable hashedStates = null; // By default, the shared checkers table
+    private long    deadline;  // System.nanoTime() after which the current iteration is abandoned
+    private boolean outOfTime;
+    private TicTacToeSearchInfo root; // Context of the whole search, checked for cancel()
+    private SearchMetrics       metrics; // Of root
+    private long                nodes;
+
+    // State of the search, per ply
+    private final int[]   pieces1At  = new int[MAX_PLY+1];
+    private final int[]   pieces2At  = new int[MAX_PLY+1];
+    private final int[]   kingsAt    = new int[MAX_PLY+1];
+    private final int[]   quietAt    = new int[MAX_PLY+1];               // CheckersPosition.getQuietPlies()
+    private final long[]  moves      = new long[(MAX_PLY+1) * MAX_MOVES];
+    private final int[]   order      = new int[(MAX_PLY+1) * MAX_MOVES]; // Move indices, best first
+    private final int[]   scores     = new int[MAX_MOVES];               // Of the moves being ordered
+    private final int[]   bestMoveAt = new int[MAX_PLY+1];               // Index of the best move found at that ply
+    private final int[][] history    = new int[2][32*32];                // [player-1][from*32+to]
+
+    CheckersStrategy() {  }
+    CheckersStrategy(InterfaceTranspositionTable hashedStates) { this.hashedStates = hashedStates; }
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        if (hashedStates == null) hashedStates = sharedTable();
+        hashedStates.newSearch(); // Entries of earlier searches age, for the table's replacement policy
+        // Each search runs on its own instance (as in TicTacToeAlphaBetaStrategy)
+        long startTime = System.nanoTime();
+        new CheckersStrategy(hashedStates).iterativeDeepening((CheckersPosition) position, (TicTacToeSearchInfo) context);
+        long nanos = System.nanoTime() - startTime;
+        SearchStatistics.of("checkers").record((TicTacToeSearchInfo) context, nanos);
+    }
+
+    static InterfaceTranspositionTable sharedTable() {
+        return LockFreeTranspositionTable.shared("checkers", TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER);
+    }
+
+    private void iterativeDeepening(CheckersPosition position, TicTacToeSearchInfo info) {
+        root    = info;
+        metrics = info.getMetrics();
+        int player = position.getPlayer();
+        pieces1At[0] = position.getPieces(1);
+        pieces2At[0] = position.getPieces(2);
+        kingsAt[0]   = position.getKings();
+        quietAt[0]   = position.getQuietPlies();
+        int nMoves   = CheckersPosition.generateMoves(pieces1At[0], pieces2At[0], kingsAt[0], player, moves, 0);
+        if (nMoves == 0 || position.isWinner() != -1) return; // Nothing to play
+        setBestMove(info, position, moves[0], 0); // Any move, in case even depth 1 is cancelled
+
+        int  maxDepth  = info.getMaxDepthSearchForThisPos();
+        int  minDepth  = Math.max(1, info.getMinDepthSearchForThisPos()); // Always complete depth 1 to have a move
+        int  maxTimeMs = info.getMaxSearchTimeForThisPos() > 0 ? info.getMaxSearchTimeForThisPos()
+                       : maxDepth > 0 ? 0 : DEFAULT_TIME; // With only a max depth, search to it
+        long maxTime   = maxTimeMs * 1000000L; // ms -> ns
+        long startTime = System.nanoTime();
+        if (maxDepth <= 0 || maxDepth > MAX_PLY/2) maxDepth = MAX_PLY/2; // The other half is left to quiescence
+
+        int firstMove = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            deadline  = (maxTime > 0 && depth > minDepth) ? startTime + maxTime : Long.MAX_VALUE;
+            outOfTime = false;
+            nodes     = 0;
+            long iterationStart = System.nanoTime();
+            int  score = search(depth, -WIN-1, WIN+1, 0, player, firstMove);
+            info.addNodeCount(nodes);
+            if (outOfTime) break;
+            metrics.iterationComplete(depth, nodes, System.nanoTime() - iterationStart);
+
+            firstMove = bestMoveAt[0];
+            setBestMove(info, position, moves[firstMove], score);
+            if (Math.abs(score) >= WIN - MAX_PLY) break;   // A forced win or loss; deeper will not change it
+            if (maxTime > 0 && System.nanoTime() - startTime > maxTime/2) break; // The next iteration would not finish
+        }
+    }
+
+    private void setBestMove(TicTacToeSearchInfo info, CheckersPosition position, long move, int score) {
+        CheckersPosition after = new CheckersPosition(position);
+        after.makeMove(move);
+        InterfaceIterator iPos = new TicTacToeIterator(8, 8);
+        int to = CheckersPosition.to(move);
+        iPos.set(CheckersPosition.column(to), CheckersPosition.row(to));
+        info.setBestMoveSoFar(iPos, (float) score / WIN, after);
+    }
+
+    // Negamax score of the position at ply (pieces1At[ply], ...) for player, within (alpha,beta);
+    //   the index of its best move is left in bestMoveAt[ply].
+    //   If the search runs out of time, the result is meaningless (and outOfTime is set).
+    private int search(int depth, int alpha, int beta, int ply, int player, int firstMove) {
+        nodes++;
+        if ((nodes & (TIME_CHECK_INTERVAL-1)) == 0
+         && (root.isCancelled() || (deadline != Long.MAX_VALUE && System.nanoTime() > deadline))) {
+            outOfTime = true;
+            return 0;
+        }
+        int p1 = pieces1At[ply], p2 = pieces2At[ply], kings = kingsAt[ply];
+        int offset = ply * MAX_MOVES;
+        int nMoves = CheckersPosition.generateMoves(p1, p2, kings, player, moves, offset);
+        if (nMoves == 0) return -WIN + ply;                     // Cannot move: lost
+        if (quietAt[ply] >= CheckersPosition.DRAW_PLIES) return 0;
+        if (depth <= 0 || ply >= MAX_PLY/2) return quiesce(alpha, beta, ply, player, nMoves);
+
+        int  alphaOriginal = alpha;
+        long key   = CheckersPosition.hash(p1, p2, kings, player);
+        int  saved = hashedStates.get(key);
+        metrics.probe(saved != InterfaceTranspositionTable.NOT_FOUND);
+        if (saved != InterfaceTranspositionTable.NOT_FOUND) {
+            int score = fromTable(score(saved), ply);
+            int bound = TicTacToeTranspositionTable.bound(saved);
+            int move  = move(saved);
+            if (firstMove < 0 && move < nMoves) firstMove = move; // Try the saved best move first
+            if ( move < nMoves && TicTacToeTranspositionTable.depth(saved) >= depth
+              && ( bound == TicTacToeTranspositionTable.BOUND_EXACT
+               || (bound == TicTacToeTranspositionTable.BOUND_LOWER && score >= beta )
+               || (bound == TicTacToeTranspositionTable.BOUND_UPPER && score <= alpha) ) ) {
+                bestMoveAt[ply] = move;
+                return score;
+            }
+        }
+
+        orderMoves(offset, nMoves, player, firstMove);
+        int best     = Integer.MIN_VALUE;
+        int bestMove = 0;
+        for (int i = 0; i < nMoves; i++) {
+            int  index = order[offset + i];
+            play(ply, player, moves[offset + index]);
+            int score = -search(depth-1, -beta, -alpha, ply+1, 3-player, -1);
+            if (outOfTime) return 0; // The score is incomplete; do not use or save it
+
+            if (score > best) {
+                best     = score;
+                bestMove = index;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) { // Cutoff: the opponent will not allow this position
+                    metrics.cutoff();
+                    long move = moves[offset + index];
+                    int[] playerHistory = history[player-1];
+                    int   slot = CheckersPosition.from(move)*32 + CheckersPosition.to(move);
+                    playerHistory[slot] += depth*depth;
+                    if (playerHistory[slot] >= 1 << 20) { // Keep scores in range; old cutoffs count for less
+                        for (int[] h : history) for (int s = 0; s < h.length; s++) h[s] >>= 1;
+                    }
+                    break;
+                }
+            }
+        }
+
+        int bound = best <= alphaOriginal ? TicTacToeTranspositionTable.BOUND_UPPER
+                  : best >= beta          ? TicTacToeTranspositionTable.BOUND_LOWER
+                                          : TicTacToeTranspositionTable.BOUND_EXACT;
+        hashedStates.put(key, pack(toTable(best, ply), bestMove, bound, depth));
+        metrics.store();
+        bestMoveAt[ply] = bestMove;
+        return best;
+    }
+
+    // Searches the captures of the position at ply (whose nMoves moves are already generated) until it is quiet
+    private int quiesce(int alpha, int beta, int ply, int player, int nMoves) {
+        int offset = ply * MAX_MOVES;
+        if (CheckersPosition.captured(moves[offset]) == 0 || ply >= MAX_PLY) { // Quiet: no capture is possible
+            return CheckersPosition.evaluate(pieces1At[ply], pieces2At[ply], kingsAt[ply], player);
+        }
+        orderMoves(offset, nMoves, player, -1);
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < nMoves; i++) {
+            play(ply, player, moves[offset + order[offset + i]]);
+            int score = -search(0, -beta, -alpha, ply+1, 3-player, -1);
+            if (outOfTime) return 0;
+            if (score > best) {
+                best = score;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+        return best;
+    }
+
+    // The position after player plays move at ply, into ply+1
+    private void play(int ply, int player, long move) {
+        int captured = CheckersPosition.captured(move);
+        int kings    = kingsAt[ply];
+        quietAt[ply+1]   = captured == 0 && (kings & (1 << CheckersPosition.from(move))) != 0 ? quietAt[ply] + 1 : 0;
+        kingsAt[ply+1]   = CheckersPosition.movedKings(kings, move, player);
+        pieces1At[ply+1] = player == 1 ? CheckersPosition.movedPieces(pieces1At[ply], move) : pieces1At[ply] & ~captured;
+        pieces2At[ply+1] = player == 2 ? CheckersPosition.movedPieces(pieces2At[ply], move) : pieces2At[ply] & ~captured;
+    }
+
+    // Sorts the indices of the moves at offset into order[offset..], best first
+    private void orderMoves(int offset, int nMoves, int player, int firstMove) {
+        int[] playerHistory = history[player-1];
+        for (int i = 0; i < nMoves; i++) {
+            long move  = moves[offset + i];
+            int  score = i == firstMove ? Integer.MAX_VALUE
+                       : (Integer.bitCount(CheckersPosition.captured(move)) << 24)
+                         + playerHistory[CheckersPosition.from(move)*32 + CheckersPosition.to(move)];
+            // Insertion sort, best score first (stable, so equal moves stay in generation order)
+            int j = i;
+            while (j > 0 && scores[j-1] < score) {
+                scores[j]         = scores[j-1];
+                order[offset + j] = order[offset + j-1];
+                j--;
+            }
+            scores[j]         = score;
+            order[offset + j] = i;
+        }
+    }
+
+    // Win scores are saved relative to the position (plies to the win from there), and used relative to the root
+    private static int toTable(int score, int ply) {
+        if (score >=  WIN - MAX_PLY) return score + ply;
+        if (score <= -WIN + MAX_PLY) return score - ply;
+        return score;
+    }
+    private static int fromTable(int score, int ply) {
+        if (score >=  WIN - MAX_PLY) return score - ply;
+        if (score <= -WIN + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    static int pack(int score, int move, int bound, int depth) {
+        return (score & 0xFFFF) | (bound << 16) | ((Math.min(depth, 0xFF)) << 18) | (Math.min(move, NO_MOVE) << 26);
+    }
+    static int score(int value) { return (short) value;         }
+    static int move( int value) { return (value >>> 26) & 0x3F; }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
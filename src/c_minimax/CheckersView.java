@@ -0,0 +1,144 @@
+package c_minimax;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.stage.Stage;
+
+public class CheckersView implements InterfaceView {
+    // The view of checkers: an 8x8 board, with the strategy choices, a status line and a "New Game" button.
+    // A manual move is two clicks: on a piece, then on the square it moves to (for a multi-jump, its last square);
+    //   they are passed to the controller (CheckersControl) as onMove(i0C,i0R,i1C,i1R,0), and it checks them.
+    // The controller shows each move with performMove() (which marks its two squares) and then the position.
+    // Rows are counted from player 1's side, so row iR is drawn at grid row 7-iR.
+
+    private static final double SIZE        = 56; // Of a square
+    private static final Color  LIGHT       = Color.BEIGE;
+    private static final Color  DARK        = Color.SADDLEBROWN;
+    private static final Color  SELECTED    = Color.OLIVEDRAB;  // The piece clicked, and the last move's squares
+    private static final Color  PLAYER1     = Color.BLACK;
+    private static final Color  PLAYER2     = Color.FIREBRICK;
+    private static final Color  KING        = Color.GOLD;       // The rim of a king
+
+    private InterfaceControl  controller;
+    private final Rectangle[][] squares = new Rectangle[8][8];
+    private final Circle[][]    pieces  = new Circle[8][8];
+    private final Label         status  = new Label();
+    private int selectedC = -1, selectedR = -1; // The first click of a manual move, if any
+
+    CheckersView(InterfaceControl controller) {
+        if ( controller instanceof CheckersControl ) {
+            this.controller = controller;
+        } else
+            System.out.println("Error: CheckersView does not recognize this type of InterfaceControl");
+    }
+
+    @Override public int nC() { return 8; }
+    @Override public int nR() { return 8; }
+
+    @Override
+    public void start(Stage stage) {
+        // Note: this method does not override Application::start() (as in TicTacToeView)
+        GridPane grid = new GridPane();
+        for (int iC = 0; iC < 8; iC++) {
+            for (int iR = 0; iR < 8; iR++) {
+                final int column = iC, row = iR;
+                squares[iC][iR] = new Rectangle(SIZE, SIZE, squareColor(iC, iR));
+                pieces[iC][iR]  = new Circle(0.4*SIZE);
+                pieces[iC][iR].setStrokeWidth(0.08*SIZE);
+                pieces[iC][iR].setVisible(false);
+                StackPane cell = new StackPane(squares[iC][iR], pieces[iC][iR]);
+                cell.setOnMouseClicked(new EventHandler<MouseEvent>() {
+                    @Override public void handle(MouseEvent event) { onClick(column, row); }
+                });
+                grid.add(cell, iC, 7-iR);
+            }
+        }
+
+        Button newGame = new Button("New Game");
+        newGame.setOnAction(new EventHandler<ActionEvent>() {
+            @Override public void handle(ActionEvent actionEvent) {
+                controller.resetGame();
+            }
+        });
+        HBox controls = new HBox(SIZE/4, status, newGame);
+        controls.setAlignment(Pos.CENTER);
+
+        VBox layout = new VBox(SIZE/8,
+                new StrategyChoice(controller, Color.BLACK, new String[] { "Manual", "StrtgyA" }), // A: alpha-beta with quiescence
+                grid, controls);
+        layout.setPadding(new Insets(SIZE/8));
+
+        stage.setTitle("Checkers");
+        stage.setScene(new Scene(layout));
+        stage.show();
+
+        controller.setView(this);
+        controller.resetGame();
+    }
+
+    private void onClick(int iC, int iR) {
+        if (CheckersPosition.square(iC, iR) < 0 || controller.isBlockManualMove()) return;
+        if (selectedC < 0 || pieces[iC][iR].isVisible()) { // Select (or reselect) the piece to move
+            clearMarks();
+            if (!pieces[iC][iR].isVisible()) return;
+            selectedC = iC;
+            selectedR = iR;
+            squares[iC][iR].setFill(SELECTED);
+        } else {
+            int fromC = selectedC, fromR = selectedR;
+            clearMarks();
+            controller.onMove(fromC, fromR, iC, iR, 0);
+        }
+    }
+
+    @Override
+    public void performMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // Marks the squares of the last move
+        clearMarks();
+        squares[i0C][i0R].setFill(SELECTED);
+        squares[i1C][i1R].setFill(SELECTED);
+    }
+
+    // Draws the pieces of position
+    void showPosition( CheckersPosition position ) {
+        InterfaceIterator iPos = new TicTacToeIterator(8, 8);
+        for (int iC = 0; iC < 8; iC++) {
+            for (int iR = 0; iR < 8; iR++) {
+                iPos.set(iC, iR);
+                int    color = position.getColor(iPos); // 0 empty, 1-2 men, 3-4 kings
+                Circle piece = pieces[iC][iR];
+                piece.setVisible(color != 0);
+                if (color == 0) continue;
+                piece.setFill(color % 2 == 1 ? PLAYER1 : PLAYER2);
+                piece.setStroke(color > 2 ? KING : null);
+            }
+        }
+    }
+
+    void showStatus( String text ) {
+        status.setText(text);
+    }
+
+    private void clearMarks() {
+        selectedC = selectedR = -1;
+        for (int iC = 0; iC < 8; iC++) {
+            for (int iR = 0; iR < 8; iR++) squares[iC][iR].setFill(squareColor(iC, iR));
+        }
+    }
+
+    private static Color squareColor(int iC, int iR) {
+        return CheckersPosition.square(iC, iR) >= 0 ? DARK : LIGHT;
+    }
+}
@@ -0,0 +1,151 @@
+package c_minimax;
+
+import javafx.application.Platform;
+
+public class Connect4Control implements InterfaceControl {
+    // The controller of Connect-4, which (unlike TicTacToeControl) is also the model:
+    //   it keeps the position of the game, makes sure that moves follow the rules (a stone drops to the lowest free
+    //   square of its column), finds the winner, and asks a strategy for a move when a strategy plays.
+    // The view only reports clicks (onMove(i0C,i0R,i1C,i1R,iPlayer), where only the column i1C matters)
+    //   and shows the moves played (performMove) and the status of the game.
+    // As in TicTacToeControl, a strategy searches on a background thread; its move is played on the JavaFX
+    //   application thread, unless the search was cancelled meanwhile (by a new game or a change of strategy).
+
+    private Connect4View      view;
+    private Connect4Position  position        = new Connect4Position();
+    private InterfaceStrategy strategy1       = null;
+    private InterfaceStrategy strategy2       = null;
+    private int               strategyChoice1 = 0; // Index into the view's strategy choices (0 is manual)
+    private int               strategyChoice2 = 0;
+    private static final int  MAX_SEARCH_TIME = 2000; // ms per move; the solver usually finishes much sooner
+    private ThreadStrategy    searchThread    = null; // The strategy search in flight, if any (only used on the FX thread)
+
+    @Override
+    public void setView(InterfaceView view) {
+        if ( view instanceof Connect4View ) {
+            this.view = (Connect4View) view;
+        } else
+            System.err.println("Error: Connect4Control cannot accept this type of InterfaceView");
+    }
+
+    @Override
+    public InterfaceView getView() { return view; }
+
+    @Override
+    public void setStrategy( int player, int strategy ) {
+        InterfaceStrategy playerStrategy = newStrategy(strategy); // null for manual
+        if (player==1) {
+            strategy1       = playerStrategy;
+            strategyChoice1 = strategy;
+        } else {
+            strategy2       = playerStrategy;
+            strategyChoice2 = strategy;
+        }
+        onMove(); // Cancel the search of the old strategy, and check if anything needs to be done via a strategy
+    }
+
+    private InterfaceStrategy newStrategy( int strategy ) {
+        switch (strategy) {
+        case 1:  return new Connect4Strategy(); // StrtgyA: alpha-beta solver
+        default: return null;                   // Manual
+        }
+    }
+
+    @Override
+    public int getStrategy( int player ) {
+        if (player==1) return strategyChoice1;
+        else           return strategyChoice2;
+    }
+
+    private InterfaceStrategy strategyToMove() {
+        return position.getPlayer() == 1 ? strategy1 : strategy2;
+    }
+
+    @Override
+    public void onMove() { // Control is notified of a move (or a change): let a strategy move if one plays now
+        cancelSearch(); // The position it was searching has changed
+        if (position.isWinner() != -1) return;
+        InterfaceStrategy strategy = strategyToMove();
+        if (strategy == null) return; // Manual
+
+        final Connect4Position    searched  = new Connect4Position(position);
+        final InterfaceSearchInfo context   = new TicTacToeSearchInfo();
+        context.setMaxSearchTimeForThisPos(MAX_SEARCH_TIME);
+        final long                startTime = System.nanoTime(); // Start the total timing
+        final ThreadStrategy      thread    = new ThreadStrategy(strategy, searched, context);
+        thread.setDaemon(true); // Do not keep the application alive on exit
+        thread.addListener(new ThreadCompleteListener() {
+            @Override public void notifyOfThreadComplete(Thread completed) {
+                Platform.runLater(new Runnable() {
+                    @Override public void run() { onSearchComplete(thread, context, startTime); }
+                });
+            }
+        });
+        searchThread = thread;
+        thread.start();
+    }
+
+    private void onSearchComplete(ThreadStrategy thread, InterfaceSearchInfo context, long startTime) {
+        if (thread != searchThread) return; // Cancelled
+        searchThread = null;
+        long endTime  = System.nanoTime(); // Finish the total timing
+        System.out.println("This move computation took:   " + ((double)(endTime - startTime)/1000000.0) + " milliseconds, "
+                           + ((TicTacToeSearchInfo)context).getNodeCount() + " nodes; " + ((TicTacToeSearchInfo)context).getMetrics());
+        InterfaceIterator bestMove = context.getBestMoveSoFar();
+        if (bestMove == null) {
+            System.err.println("Error: Connect4Control: the strategy did not find a move");
+            return;
+        }
+        play(bestMove.iC());
+    }
+
+    private void cancelSearch() {
+        if (searchThread != null) {
+            ((TicTacToeSearchInfo) searchThread.getContext()).cancel();
+            searchThread = null;
+        }
+    }
+
+    @Override
+    public void onMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // A click on (i1C,i1R): a stone into column i1C
+        if (isBlockManualMove()) return;
+        play(i1C);
+    }
+
+    // Drops a stone of the player to move into column iC, and passes the turn
+    private void play( int iC ) {
+        if (iC < 0 || iC >= position.nC() || !position.canPlay(iC)) {
+            System.err.println("Error(Connect4Control::play): column "+iC+" cannot be played");
+            return;
+        }
+        int player = position.getPlayer();
+        int iR     = position.getHeight(iC);
+        InterfaceIterator iPos = new TicTacToeIterator(position.nC(), position.nR()); iPos.set(iC, iR);
+        position.setColor(iPos, player);
+        position.setPlayer(3-player);
+        view.performMove(-1, -1, iC, iR, player);
+        showStatus();
+        onMove();
+    }
+
+    private void showStatus() {
+        int winner = position.isWinner();
+        if      (winner == -1) view.showStatus("Player " + position.getPlayer() + " to move");
+        else if (winner ==  0) view.showStatus("Draw");
+        else                   view.showStatus("Player " + winner + " wins");
+    }
+
+    @Override
+    public void resetGame() {
+        cancelSearch(); // It was searching a position of the old game
+        position.reset();
+        view.clear();
+        showStatus();
+        onMove();
+    }
+
+    @Override
+    public boolean isBlockManualMove() { // The game is over, or a strategy plays the player to move
+        return position.isWinner() != -1 || strategyToMove() != null;
+    }
+}
@@ -0,0 +1,201 @@
+package c_minimax;
+
+import java.util.Arrays;
+
+public class Connect4Position implements InterfacePosition {
+    // Connect-4: a 7x6 board where stones drop to the lowest free square of a column, and 4 in a row
+    //   (horizontally, vertically or diagonally) wins.
+    // "Color" is convention, only integers are returned or set.
+    // 0-empty, 1-first player, 2-second player
+    // Rows are counted from the bottom: (iC,0) is the lowest square of column iC.
+
+    // Each color is a bitboard in a long, column by column: bit iC*H1 + iR is set if the color is at (iC,iR).
+    //   Each column has a sentinel bit on top (row 6) that is never set, so a shift by 1 (vertical),
+    //   H1 (horizontal), H1-1 or H1+1 (diagonals) never carries a line from one column into the next.
+    //   So four in a row is found with two shifts and ANDs per direction, and the squares a move can be played on
+    //   are (mask + BOTTOM_MASK) & BOARD_MASK: adding the bottom bit of a column carries up to its first free square.
+    // setColor() and clearColor() keep gravity: only the lowest free square of a column can be set,
+    //   and only the top stone of a column can be cleared.
+
+    static final int  WIDTH       = 7;
+    static final int  HEIGHT      = 6;
+    static final int  H1          = HEIGHT + 1;        // Bits per column, with the sentinel
+    static final int  SIZE        = WIDTH * HEIGHT;
+    static final long BOTTOM_MASK = bottomMask();      // The lowest square of every column
+    static final long BOARD_MASK  = BOTTOM_MASK * ((1L << HEIGHT) - 1);
+    private static final ZobristKeys ZOBRIST = ZobristKeys.of(WIDTH, HEIGHT); // Symmetry 1 is the mirror image
+
+    private long   stones1 = 0; // The first player's stones
+    private long   stones2 = 0;
+    private int    player  = 1;
+    private final long[] keys;  // Zobrist key per symmetry (see ZobristKeys), kept in step with the board
+
+    Connect4Position() {
+        keys = ZOBRIST.newKeys();
+    }
+
+    Connect4Position( InterfacePosition pos ) { // Copy; pos must be a Connect4Position
+        Connect4Position other = (Connect4Position) pos;
+        stones1 = other.stones1;
+        stones2 = other.stones2;
+        player  = other.player;
+        keys    = other.keys.clone();
+    }
+
+    private static long bottomMask() {
+        long mask = 0;
+        for (int iC = 0; iC < WIDTH; iC++) mask |= 1L << iC*H1;
+        return mask;
+    }
+
+    static long columnMask( int iC ) { return ((1L << HEIGHT) - 1) << iC*H1; }
+
+    @Override public int nC() { return WIDTH;  }
+    @Override public int nR() { return HEIGHT; }
+
+    long getStones( int color ) { return color == 1 ? stones1 : stones2; }
+    long getMask()              { return stones1 | stones2;              }
+
+    int getHeight( int iC ) { // Number of stones in column iC, i.e., the row a stone dropped there lands on
+        return Long.bitCount(getMask() & columnMask(iC));
+    }
+
+    boolean canPlay( int iC ) {
+        return getHeight(iC) < HEIGHT;
+    }
+
+    // Zobrist keys. Connect-4 is only symmetric under the mirror image (not rotations, because of gravity),
+    //   so the canonical symmetry is 0 or 1.
+    @Override public long getHashKey()                 { return keys[0]; }
+    @Override public long getHashKey( int symmetry )   { return keys[symmetry]; }
+    @Override public int  getCanonicalSymmetry()       { return keys[1] < keys[0] ? 1 : 0; }
+
+    @Override
+    public long getRawPosition() {
+        // stones1 + mask is unique: mask + BOTTOM_MASK has exactly one bit per column (above its top stone),
+        //   and the bits below it are the first player's stones. The player to move is in bit 62.
+        return (stones1 + getMask() + BOTTOM_MASK) | ((long)(player-1) << 62);
+    }
+
+    @Override
+    public int getColor( InterfaceIterator iPos ) { // 0 if empty, 1 or 2 for a stone of that player
+        long bit = 1L << (iPos.iC()*H1 + iPos.iR());
+        return (stones1 & bit) != 0 ? 1 : (stones2 & bit) != 0 ? 2 : 0;
+    }
+
+    @Override
+    public void setColor( InterfaceIterator iPos, int color ) { // Only on the lowest free square of a column
+        int iC = iPos.iC(), iR = iPos.iR();
+        if (color != 1 && color != 2) return;
+        if (iR != getHeight(iC)) {
+            System.err.println("Error(Connect4Position::setColor): ("+iC+","+iR+") is not the free square of column "+iC);
+            return;
+        }
+        if (color == 1) stones1 |= 1L << (iC*H1 + iR);
+        else            stones2 |= 1L << (iC*H1 + iR);
+        ZOBRIST.toggleSquare(keys, WIDTH*iR + iC, color);
+    }
+
+    @Override
+    public void clearColor( InterfaceIterator iPos ) { // Only the top stone of a column
+        int iC = iPos.iC(), iR = iPos.iR();
+        if (iR != getHeight(iC) - 1) {
+            System.err.println("Error(Connect4Position::clearColor): ("+iC+","+iR+") is not the top stone of column "+iC);
+            return;
+        }
+        ZOBRIST.toggleSquare(keys, WIDTH*iR + iC, getColor(iPos));
+        long bit = ~(1L << (iC*H1 + iR));
+        stones1 &= bit;
+        stones2 &= bit;
+    }
+
+    // true if stones have 4 in a row
+    static boolean isAligned( long stones ) {
+        long m = stones & (stones >>> H1);              // Horizontal
+        if ((m & (m >>> 2*H1)) != 0) return true;
+        m = stones & (stones >>> (H1-1));               // Diagonal, down to the right
+        if ((m & (m >>> 2*(H1-1))) != 0) return true;
+        m = stones & (stones >>> (H1+1));               // Diagonal, up to the right
+        if ((m & (m >>> 2*(H1+1))) != 0) return true;
+        m = stones & (stones >>> 1);                    // Vertical
+        return (m & (m >>> 2)) != 0;
+    }
+
+    // The free squares (playable now or not) that would give stones 4 in a row
+    static long winningSquares( long stones, long mask ) {
+        long r = (stones << 1) & (stones << 2) & (stones << 3); // Vertical
+        for (int shift = H1-1; shift <= H1+1; shift++) {       // Diagonal, horizontal, diagonal
+            long p = (stones << shift) & (stones << 2*shift);
+            r |= p & (stones << 3*shift);
+            r |= p & (stones >>> shift);
+            p = (stones >>> shift) & (stones >>> 2*shift);
+            r |= p & (stones << shift);
+            r |= p & (stones >>> 3*shift);
+        }
+        return r & (BOARD_MASK ^ mask);
+    }
+
+    // The squares a stone can be played on: the lowest free square of every column that is not full
+    static long playableSquares( long mask ) {
+        return (mask + BOTTOM_MASK) & BOARD_MASK;
+    }
+
+    @Override
+    public int isWinner() {
+        //      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
+        //      else if draw, return 0
+        //      else if neither winner nor draw, return -1
+        if (isAligned(stones1)) return 1;
+        if (isAligned(stones2)) return 2;
+        return Long.bitCount(getMask()) == SIZE ? 0 : -1;
+    }
+
+    @Override
+    public void reset() {
+        stones1 = 0;
+        stones2 = 0;
+        player  = 1;
+        Arrays.fill(keys, 0);
+    }
+
+    @Override
+    public void setPlayer(int iPlayer) { // Only 1 or 2 are valid
+        if ( !(0<iPlayer && iPlayer<3) ) {
+            System.err.println("Error(Connect4Position::setPlayer): iPlayer ("+iPlayer+") out of bounds!!!");
+        } else if (player != iPlayer) {
+            player = iPlayer;
+            ZOBRIST.togglePlayer(keys);
+        }
+    }
+
+    @Override
+    public int getPlayer() {
+        return player;
+    }
+
+    @Override
+    public float valuePosition() {
+        // From the point of view of the player to move, in (-0.5,0.5): by the squares that would win for each player
+        //   (threats), those playable right now counted twice
+        long mask      = getMask();
+        long own       = getStones(player), opponent = getStones(3-player);
+        long playable  = playableSquares(mask);
+        long ownWins   = winningSquares(own, mask), opponentWins = winningSquares(opponent, mask);
+        int  score     = Long.bitCount(ownWins) + Long.bitCount(ownWins & playable)
+                       - Long.bitCount(opponentWins) - Long.bitCount(opponentWins & playable);
+        return 0.5f * score / (Math.abs(score) + 4);
+    }
+
+    //for debugging
+    public String toString() {
+        StringBuilder state = new StringBuilder();
+        for (int iR = HEIGHT-1; iR >= 0; iR--) {
+            for (int iC = 0; iC < WIDTH; iC++) {
+                long bit = 1L << (iC*H1 + iR);
+                state.append(iC == 0 ? "" : "|").append((stones1 & bit) != 0 ? 1 : (stones2 & bit) != 0 ? 2 : 0);
+            }
+            state.append("\n");
+        }
+        return state.toString();
+    }
+}
@@ -0,0 +1,246 @@
+package c_minimax;
+
+public class Connect4Strategy implements InterfaceStrategy {
+    // Connect-4 solver: iterative deepening (under a time limit) over a negamax search with an alpha-beta window,
+    //   on the bitboards of Connect4Position (the player to move's stones and the mask of all stones, as two longs),
+    //   so making a move is an OR and the search allocates nothing.
+    // Scores are exact game values, the sooner a win the higher: winning with the stone played when moves stones are on
+    //   the board scores (SIZE+1-moves)/2 (so 1 to 21), a loss the negative of the opponent's win, a draw 0.
+    //   At the depth limit (the horizon) a position scores 0 (not decided yet), so a score other than 0 is proven.
+    // Pruning on top of alpha-beta:
+    //   - the player to move never plays a move that lets the opponent win next (under an opponent's winning square,
+    //     or elsewhere while the opponent threatens to win); with two such threats the position is lost
+    //   - the window is narrowed to the best and worst scores still possible from the number of moves played
+    // Moves are tried: the best move saved in the transposition table first, then by the winning squares they create,
+    //   then center first (3, 2, 4, 1, 5, 0, 6).
+    // Positions are keyed by stones + mask (unique per position), or by that of the mirror image if smaller, so a position
+    //   and its mirror share an entry. The table's packed values (TicTacToeTranspositionTable.pack) hold the raw score,
+    //   the best column (of the canonical position), the bound type and the depth.
+    // The search stops, as if out of time, once the context passed to getBestMove() is cancelled.
+
+    static final int TABLE_CAPACITY = 1 << 21;
+    private static final int   SIZE   = Connect4Position.SIZE;
+    private static final int   WIDTH  = Connect4Position.WIDTH;
+    private static final int   H1     = Connect4Position.H1;
+    private static final int[] COLUMN_ORDER = { 3, 2, 4, 1, 5, 0, 6 }; // Center first
+    private static final int   TIME_CHECK_INTERVAL = 1 << 10; // Nodes between checks of the deadline
+
+    private InterfaceTranspositionTable hashedStates = null; // By default, the shared Connect-4 table
+    private long    deadline;  // System.nanoTime() after which the current iteration is abandoned
+    private boolean outOfTime;
+    private TicTacToeSearchInfo root; // Context of the whole search, checked for cancel()
+    private SearchMetrics       metrics; // Of root
+    private int[]               bestColumnAt = new int[SIZE+1]; // bestColumnAt[ply] is the best column found at that ply
+    private int[][]             columnsAt    = new int[SIZE+1][WIDTH]; // Move buffers, one per ply
+    private int[]               scores       = new int[WIDTH];
+    private long                nodes;
+
+    Connect4Strategy() {  }
+    Connect4Strategy(InterfaceTranspositionTable hashedStates) { this.hashedStates = hashedStates; }
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        if (hashedStates == null) hashedStates = sharedTable();
+        hashedStates.newSearch(); // Entries of earlier searches age, for the table's replacement policy
+        // Each search runs on its own instance (as in TicTacToeAlphaBetaStrategy)
+        long startTime = System.nanoTime();
+        new Connect4Strategy(hashedStates).iterativeDeepening((Connect4Position) position, (TicTacToeSearchInfo) context);
+        long nanos = System.nanoTime() - startTime;
+        SearchStatistics.of("connect4").record((TicTacToeSearchInfo) context, nanos);
+    }
+
+    static InterfaceTranspositionTable sharedTable() {
+        return LockFreeTranspositionTable.shared("connect4", TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER);
+    }
+
+    private void iterativeDeepening(Connect4Position position, TicTacToeSearchInfo info) {
+        root    = info;
+        metrics = info.getMetrics();
+        if (position.isWinner() != -1) return; // Nothing to play
+        long current  = position.getStones(position.getPlayer());
+        long mask     = position.getMask();
+        int  moves    = Long.bitCount(mask);
+        long possible = Connect4Position.playableSquares(mask);
+
+        long win = possible & Connect4Position.winningSquares(current, mask);
+        if (win != 0) { // Win now
+            setBestMove(info, columnOf(win), 1);
+            info.addNodeCount(1);
+            return;
+        }
+        setBestMove(info, columnOf(possible), -1); // Any move, in case even depth 1 is cancelled
+
+        int  maxDepth  = info.getMaxDepthSearchForThisPos();
+        int  minDepth  = Math.max(1, info.getMinDepthSearchForThisPos()); // Always complete depth 1 to have a move
+        long maxTime   = info.getMaxSearchTimeForThisPos() * 1000000L;    // ms -> ns
+        long startTime = System.nanoTime();
+        if (maxDepth <= 0 || maxDepth > SIZE-moves) maxDepth = SIZE-moves;
+
+        // Without a time limit the position is solved at once: the shallower iterations would only order the moves,
+        //   which is not worth their nodes here (about twice the time over 20 positions of 20 stones)
+        int firstColumn = -1;
+        for (int depth = maxTime > 0 ? 1 : maxDepth; depth <= maxDepth; depth++) {
+            deadline  = (maxTime > 0 && depth > minDepth) ? startTime + maxTime : Long.MAX_VALUE;
+            outOfTime = false;
+            nodes     = 0;
+            bestColumnAt[0] = -1;
+            long iterationStart = System.nanoTime();
+            int  score = search(current, mask, moves, depth, -SIZE/2, SIZE/2, 0, firstColumn);
+            info.addNodeCount(nodes);
+            if (outOfTime) break;
+            metrics.iterationComplete(depth, nodes, System.nanoTime() - iterationStart);
+
+            if (bestColumnAt[0] < 0) { // Every move loses at once: play any
+                setBestMove(info, columnOf(possible), Math.signum(score));
+                break;
+            }
+            firstColumn = bestColumnAt[0];
+            setBestMove(info, firstColumn, Math.signum(score));
+            if (score != 0) break; // Proven; deeper will not change it
+        }
+    }
+
+    private void setBestMove(TicTacToeSearchInfo info, int column, float score) {
+        InterfaceIterator iPos = new TicTacToeIterator(WIDTH, Connect4Position.HEIGHT);
+        iPos.set(column, 0); // Only the column matters: the stone drops to the lowest free square
+        info.setBestMoveSoFar(iPos, score);
+    }
+
+    // Negamax score of (current, mask) for the player to move, within (alpha,beta); its best column is left in
+    //   bestColumnAt[ply] (-1 if it loses at once). The player to move must not be able to win at once.
+    //   If the search runs out of time, the result is meaningless (and outOfTime is set).
+    private int search(long current, long mask, int moves, int depth, int alpha, int beta, int ply, int firstColumn) {
+        nodes++;
+        bestColumnAt[ply] = -1;
+        if ((nodes & (TIME_CHECK_INTERVAL-1)) == 0
+         && (root.isCancelled() || (deadline != Long.MAX_VALUE && System.nanoTime() > deadline))) {
+            outOfTime = true;
+            return 0;
+        }
+        long next = nonLosingMoves(current, mask);
+        if (next == 0) return -(SIZE-moves)/2; // The opponent wins next move
+        if (moves >= SIZE-2) return 0;         // Neither player can win any more
+        if (depth <= 0) return 0;              // The horizon: not decided
+
+        int min = -(SIZE-2-moves)/2; // The opponent cannot win on its next move
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) return alpha;
+        }
+        int max = (SIZE-1-moves)/2;  // This player cannot win on this move
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+
+        long    key       = current + mask;
+        long    mirrored  = mirror(key);
+        boolean isMirror  = mirrored < key;
+        if (isMirror) key = mirrored;
+        int alphaOriginal = alpha;
+        int saved = hashedStates.get(key);
+        metrics.probe(saved != InterfaceTranspositionTable.NOT_FOUND);
+        if (saved != InterfaceTranspositionTable.NOT_FOUND) {
+            int score  = TicTacToeTranspositionTable.score(saved);
+            int bound  = TicTacToeTranspositionTable.bound(saved);
+            int column = TicTacToeTranspositionTable.move(saved);
+            if (isMirror) column = WIDTH-1-column;
+            if (firstColumn < 0) firstColumn = column; // Try the saved best move first
+            if ( TicTacToeTranspositionTable.depth(saved) >= depth
+              && ( bound == TicTacToeTranspositionTable.BOUND_EXACT
+               || (bound == TicTacToeTranspositionTable.BOUND_LOWER && score >= beta )
+               || (bound == TicTacToeTranspositionTable.BOUND_UPPER && score <= alpha) ) ) {
+                bestColumnAt[ply] = column;
+                return score;
+            }
+        }
+
+        int   nMoves  = orderMoves(current, mask, next, ply, firstColumn);
+        int[] columns = columnsAt[ply];
+        int   best    = Integer.MIN_VALUE;
+        int   bestColumn = -1;
+        for (int i = 0; i < nMoves; i++) {
+            int  column = columns[i];
+            long move   = next & Connect4Position.columnMask(column);
+            int  score  = -search(current ^ mask, mask | move, moves+1, depth-1, -beta, -alpha, ply+1, -1);
+            if (outOfTime) return 0; // The score is incomplete; do not use or save it
+
+            if (score > best) {
+                best       = score;
+                bestColumn = column;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) { // Cutoff: the opponent will not allow this position
+                    metrics.cutoff();
+                    break;
+                }
+            }
+        }
+
+        int bound = best <= alphaOriginal ? TicTacToeTranspositionTable.BOUND_UPPER
+                  : best >= beta          ? TicTacToeTranspositionTable.BOUND_LOWER
+                                          : TicTacToeTranspositionTable.BOUND_EXACT;
+        hashedStates.put(key, TicTacToeTranspositionTable.pack(best, isMirror ? WIDTH-1-bestColumn : bestColumn, bound, depth));
+        metrics.store();
+        bestColumnAt[ply] = bestColumn;
+        return best;
+    }
+
+    // The columns of the moves in next into columnsAt[ply], best first; returns how many there are
+    private int orderMoves(long current, long mask, long next, int ply, int firstColumn) {
+        int[] columns = columnsAt[ply];
+        int   nMoves  = 0;
+        for (int column : COLUMN_ORDER) {
+            long move = next & Connect4Position.columnMask(column);
+            if (move == 0) continue;
+            int score = column == firstColumn ? Integer.MAX_VALUE
+                      : Long.bitCount(Connect4Position.winningSquares(current | move, mask | move));
+            // Insertion sort, best score first (stable, so equal moves stay center first)
+            int j = nMoves++;
+            while (j > 0 && scores[j-1] < score) {
+                scores[j]  = scores[j-1];
+                columns[j] = columns[j-1];
+                j--;
+            }
+            scores[j]  = score;
+            columns[j] = column;
+        }
+        return nMoves;
+    }
+
+    // The playable squares that do not let the opponent win next move
+    private static long nonLosingMoves(long current, long mask) {
+        long possible     = Connect4Position.playableSquares(mask);
+        long opponentWins = Connect4Position.winningSquares(current ^ mask, mask);
+        long forced       = possible & opponentWins;
+        if (forced != 0) {
+            if ((forced & (forced-1)) != 0) return 0; // Two threats: only one can be blocked
+            possible = forced;
+        }
+        return possible & ~(opponentWins >>> 1);      // Not right below an opponent's winning square
+    }
+
+    // The key of the mirror image (columns in reverse order)
+    private static long mirror(long key) {
+        long mirrored = 0;
+        for (int column = 0; column < WIDTH; column++) {
+            mirrored |= ((key >>> column*H1) & ((1L << H1) - 1)) << (WIDTH-1-column)*H1;
+        }
+        return mirrored;
+    }
+
+    private static int columnOf(long squares) { // The column of the lowest set square
+        return Long.numberOfTrailingZeros(squares) / H1;
+    }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
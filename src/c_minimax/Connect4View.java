@@ -0,0 +1,103 @@
+package c_minimax;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.stage.Stage;
+
+public class Connect4View implements InterfaceView {
+    // The view of Connect-4: a 7x6 grid of holes, with the strategy choices, a status line and a "New Game" button.
+    // A click anywhere in a column is passed to the controller (Connect4Control), which drops the stone;
+    //   the controller then shows the move with performMove() and the status with showStatus().
+    // Rows are counted from the bottom (as in Connect4Position), so row iR is drawn at grid row nR-1-iR.
+
+    private static final double RADIUS      = 32;
+    private static final String BOARD_STYLE = "royalblue";
+    private static final Color  EMPTY       = Color.WHITE;
+    private static final Color  PLAYER1     = Color.RED;
+    private static final Color  PLAYER2     = Color.GOLD;
+
+    private InterfaceControl controller;
+    private final Circle[][] holes  = new Circle[Connect4Position.WIDTH][Connect4Position.HEIGHT];
+    private final Label      status = new Label();
+
+    Connect4View(InterfaceControl controller) {
+        if ( controller instanceof Connect4Control ) {
+            this.controller = controller;
+        } else
+            System.out.println("Error: Connect4View does not recognize this type of InterfaceControl");
+    }
+
+    @Override public int nC() { return Connect4Position.WIDTH;  }
+    @Override public int nR() { return Connect4Position.HEIGHT; }
+
+    @Override
+    public void start(Stage stage) {
+        // Note: this method does not override Application::start() (as in TicTacToeView)
+        GridPane grid = new GridPane();
+        grid.setHgap(RADIUS/4);
+        grid.setVgap(RADIUS/4);
+        grid.setPadding(new Insets(RADIUS/2));
+        grid.setStyle("-fx-background-color: " + BOARD_STYLE + ";");
+        for (int iC = 0; iC < nC(); iC++) {
+            for (int iR = 0; iR < nR(); iR++) {
+                final int column = iC, row = iR;
+                Circle hole = new Circle(RADIUS, EMPTY);
+                hole.setOnMouseClicked(new EventHandler<MouseEvent>() {
+                    @Override public void handle(MouseEvent event) {
+                        controller.onMove(-1, -1, column, row, 0); // The controller finds the row the stone drops to
+                    }
+                });
+                holes[iC][iR] = hole;
+                grid.add(hole, iC, nR()-1-iR);
+            }
+        }
+
+        Button newGame = new Button("New Game");
+        newGame.setOnAction(new EventHandler<ActionEvent>() {
+            @Override public void handle(ActionEvent actionEvent) {
+                controller.resetGame();
+            }
+        });
+        HBox controls = new HBox(RADIUS/2, status, newGame);
+        controls.setAlignment(Pos.CENTER);
+
+        VBox layout = new VBox(RADIUS/4,
+                new StrategyChoice(controller, Color.BLACK, new String[] { "Manual", "StrtgyA" }), // A: alpha-beta solver
+                new StackPane(grid), controls);
+        layout.setPadding(new Insets(RADIUS/4));
+
+        stage.setTitle("Connect-4");
+        stage.setScene(new Scene(layout));
+        stage.show();
+
+        controller.setView(this);
+        controller.resetGame();
+    }
+
+    @Override
+    public void performMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // A stone of iPlayer lands on (i1C,i1R)
+        holes[i1C][i1R].setFill(iPlayer == 1 ? PLAYER1 : PLAYER2);
+    }
+
+    void showStatus( String text ) {
+        status.setText(text);
+    }
+
+    void clear() { // Every hole empty again
+        for (Circle[] column : holes) {
+            for (Circle hole : column) hole.setFill(EMPTY);
+        }
+    }
+}
@@ -1,16 +1,21 @@
-package c_minimax;
-
-//author: Gary Kalmanovich; rights reserved
-
-public interface InterfacePosition {
-    public long getRawPosition();
-    public int  getColor( InterfaceIterator iPos ); // get color at a spot
-    public void setColor( InterfaceIterator iPos, int color ); // set color at a spot
-    public void setPlayer( int iPlayer ); // set the player whose move it is
-    public int  getPlayer(); // get the player whose move it is
-    public int  isWinner();
-    public float valuePosition(); // For example, (probability of winning)-(probability of losing)
-    public void reset();
-    public int  nC();
-    public int  nR();
-}
+package c_minimax;
+
+//author: Gary Kalmanovich; rights reserved
+
+public interface InterfacePosition {
+    public long getRawPosition();
+    public int  getColor( InterfaceIterator iPos ); // get color at a spot
+    public void setColor( InterfaceIterator iPos, int color ); // set color at a spot
+    public void clearColor( InterfaceIterator iPos ); // empty a spot again (undoes setColor, e.g. to unmake a move)
+    public void setPlayer( int iPlayer ); // set the player whose move it is
+    public int  getPlayer(); // get the player whose move it is
+    public int  isWinner();
+    public float valuePosition(); // For example, (probability of winning)-(probability of losing)
+    public void reset();
+    public int  nC();
+    public int  nR();
+    // Zobrist keys (see ZobristKeys.of(nC(),nR())), updated incrementally by setColor, clearColor and setPlayer
+    public long getHashKey();                  // 64-bit key of the position (board and player to move)
+    public long getHashKey( int symmetry );    // Key of the position transformed by symmetry (0 is the position itself)
+    public int  getCanonicalSymmetry();        // The symmetry with the smallest key: the same key for all symmetric positions
+}
@@ -0,0 +1,24 @@
+package c_minimax;
+
+import javax.management.MXBean;
+
+// Process-wide statistics of the moves computed by one strategy, as exported over JMX
+//   (under c_minimax:type=SearchStatistics,name=<strategy>; e.g., visible in jconsole).
+// Latencies are per getBestMove, in milliseconds; percentiles are from a LatencyHistogram.
+@MXBean
+public interface InterfaceSearchStatistics {
+    public long   getMoveCount();
+    public long   getNodeCount();
+    public double getNodesPerSecond();
+    public long   getTtProbeCount();
+    public double getTtHitRate();      // Hits / probes, 0..1
+    public long   getTtStoreCount();
+    public long   getCutoffCount();
+    public double getMeanMillis();
+    public double getP50Millis();
+    public double getP90Millis();
+    public double getP99Millis();
+    public double getP999Millis();
+    public double getMaxMillis();
+    public void   reset();
+}
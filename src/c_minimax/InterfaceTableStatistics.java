@@ -0,0 +1,17 @@
+package c_minimax;
+
+import javax.management.MXBean;
+
+// Sizing and replacement counters of a fixed-size transposition table, as exported over JMX
+//   (under c_minimax:type=TranspositionTable,name=<table name>).
+@MXBean
+public interface InterfaceTableStatistics {
+    public int    getSize();           // Entries stored
+    public int    getCapacity();       // Entries the table can hold
+    public double getOccupancy();      // Size / capacity, 0..1
+    public long   getBytes();          // Memory taken by the entries
+    public long   getEvictionCount();  // Entries replaced by a different position
+    public long   getRejectionCount(); // Values not stored, because the replacement policy kept the old entries
+    public int    getGeneration();     // Number of searches (modulo 256), used to age entries
+    public String getPolicy();
+}
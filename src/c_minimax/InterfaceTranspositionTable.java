@@ -0,0 +1,15 @@
+package c_minimax;
+
+// A transposition table maps a packed position (e.g., getRawPosition()) to a packed value.
+// Implementations keep keys and values as primitives, so storing or probing never allocates.
+public interface InterfaceTranspositionTable {
+    public static final int NOT_FOUND = Integer.MIN_VALUE; // Returned by get() for a key that is not stored
+
+    public int     get( long key );            // The value stored for key, or NOT_FOUND
+    public void    put( long key, int value ); // Store (or overwrite) the value for key
+    public boolean containsKey( long key );
+    public void    clear();
+    public int     size();                     // Number of keys currently stored
+    public int     capacity();                 // Number of slots preallocated
+    public void    newSearch();                // A new search starts: entries stored before it are now older
+}
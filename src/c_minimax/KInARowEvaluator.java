@@ -0,0 +1,63 @@
+package c_minimax;
+
+final class KInARowEvaluator {
+    // Static evaluation of a k-in-a-row position (any board size), for valuePosition() at the search horizon.
+    // Works on two bitboards (as in KInARowPosition) and the masks of every nK-long line (KInARowPosition.Geometry),
+    //   so one evaluation is a pass over the lines with a few ANDs and bit counts each.
+    // Returns (roughly) (probability of winning) - (probability of losing) for the player to move, in (-1,1):
+    //   WIN      - the player to move has a threat (a line with one empty square and nK-1 of its marks): it wins next move
+    //   -WIN     - the opponent has threats on two or more squares: only one can be blocked
+    //   FORK     - the player to move can fork: one empty square finishes two of its lines with nK-2 marks
+    //              (if the opponent has one threat, only if blocking it is that square)
+    //   otherwise, up to +-HEURISTIC: open lines (with marks of only one player) weighted by 4^(marks-1),
+    //              plus FORK_WEIGHT per fork square, the player to move's minus the opponent's
+    // Scores of finished games (+-1 and 0) stay above every evaluation, so a real result always wins over a guess.
+
+    static final float WIN         = 0.9f;
+    static final float FORK        = 0.75f;
+    static final float HEURISTIC   = 0.5f;
+    static final int   FORK_WEIGHT = 8;
+
+    private KInARowEvaluator() { }
+
+    // own: the bitboard of the player to move; opponent: the other player's
+    static float evaluate( KInARowPosition.Geometry geometry, long own, long opponent ) {
+        int  nK = geometry.nK;
+        long empty = ~(own | opponent);
+        long ownThreats = 0, ownOnce = 0, ownTwice = 0; // Squares in lines one (or two) marks short, and in two such lines
+        long oppThreats = 0, oppOnce = 0, oppTwice = 0;
+        int  ownLines   = 0, oppLines = 0;
+        for (long line : geometry.lines) {
+            long ownMarks = line & own, oppMarks = line & opponent;
+            if (oppMarks == 0 && ownMarks != 0) {
+                int n = Long.bitCount(ownMarks);
+                ownLines += weight(n);
+                if (n == nK-1) {
+                    ownThreats |= line & empty;
+                } else if (n == nK-2) {
+                    ownTwice |= ownOnce & line & empty;
+                    ownOnce  |= line & empty;
+                }
+            } else if (ownMarks == 0 && oppMarks != 0) {
+                int n = Long.bitCount(oppMarks);
+                oppLines += weight(n);
+                if (n == nK-1) {
+                    oppThreats |= line & empty;
+                } else if (n == nK-2) {
+                    oppTwice |= oppOnce & line & empty;
+                    oppOnce  |= line & empty;
+                }
+            }
+        }
+        if (ownThreats != 0) return WIN;
+        if (Long.bitCount(oppThreats) >= 2) return -WIN;
+        if (oppThreats != 0 ? (ownTwice & oppThreats) != 0 : ownTwice != 0) return FORK;
+
+        int score = ownLines - oppLines + FORK_WEIGHT*(Long.bitCount(ownTwice) - Long.bitCount(oppTwice));
+        return HEURISTIC * score / (Math.abs(score) + weight(nK-1)); // Squashed into (-HEURISTIC,HEURISTIC)
+    }
+
+    private static int weight( int nMarks ) {
+        return 1 << Math.max(0, Math.min(2*(nMarks-1), 24));
+    }
+}
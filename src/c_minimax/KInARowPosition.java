@@ -0,0 +1,227 @@
+package c_minimax;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KInARowPosition implements InterfacePosition {
+    // An nC x nR board, where nK in a row (horizontally, vertically or diagonally) wins.
+    // Tic-tac-toe is the 3x3 board with nK=3.
+    // "Color" is convention, only integers are returned or set.
+    // 0-empty, 1-x (cross), 2-o (nought)
+
+    // Each color is a bitboard in a long: bit iR*nC+iC is set if the color is at (iC,iR).
+    //   So boards up to 64 squares (e.g., 8x8) are supported.
+    // Win detection is incremental: setColor() only tests the lines through the square just set,
+    //   against masks of every nK-long line that are precomputed once per board size.
+
+    static final int MAX_SQUARES = 64;
+
+    private final Geometry geometry;
+    private final long[]   keys; // Zobrist key per symmetry (see ZobristKeys), kept in step with the board
+    private long crosses = 0;
+    private long noughts = 0;
+    private int  player  = 1;
+    private int  winner  = 0; // Color that completed a line, 0 if none
+
+    KInARowPosition( int nC, int nR, int nK ) {
+        geometry = Geometry.of(nC, nR, nK);
+        keys     = geometry.zobrist.newKeys();
+    }
+
+    KInARowPosition( InterfacePosition pos ) { // Copy; pos must be a KInARowPosition
+        KInARowPosition other = (KInARowPosition) pos;
+        geometry = other.geometry;
+        crosses  = other.crosses;
+        noughts  = other.noughts;
+        player   = other.player;
+        winner   = other.winner;
+        keys     = other.keys.clone();
+    }
+
+    KInARowPosition( InterfacePosition pos, int nK ) { // Convert any position, e.g. a TicTacToePosition
+        this(pos.nC(), pos.nR(), nK);
+        for (InterfaceIterator iPos = new TicTacToeIterator(nC(), nR()); iPos.isInBounds(); iPos.increment()) {
+            int color = pos.getColor(iPos);
+            if (color != 0) setColor(iPos, color);
+        }
+        setPlayer(pos.getPlayer());
+    }
+
+    @Override public int nC() { return geometry.nC; }
+    @Override public int nR() { return geometry.nR; }
+    public int nK() { return geometry.nK; }
+
+    @Override public long getHashKey()                 { return keys[0]; }
+    @Override public long getHashKey( int symmetry )   { return keys[symmetry]; }
+    @Override public int  getCanonicalSymmetry()       { return ZobristKeys.canonicalSymmetry(keys); }
+
+    @Override
+    public long getRawPosition() {
+        // Exact for boards up to 31 squares: crosses in bits 0-30, noughts in bits 31-61, player in bit 62.
+        // Bigger boards do not fit, so a (non-negative) hash of the position is returned instead.
+        if (geometry.nSquares <= 31) {
+            return crosses | (noughts << 31) | ((long)(player-1) << 62);
+        }
+        long h = crosses * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(noughts * 0xC2B2AE3D27D4EB4FL, 31) ^ player;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return (h ^ (h >>> 33)) >>> 1;
+    }
+
+    @Override
+    public int getColor( InterfaceIterator iPos ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
+        return getColor( iPos.iR()*geometry.nC + iPos.iC() );
+    }
+
+    public int getColor( int square ) { // square = iR*nC+iC
+        long bit = 1L << square;
+        return (crosses & bit) != 0 ? 1 : (noughts & bit) != 0 ? 2 : 0;
+    }
+
+    @Override
+    public void setColor( InterfaceIterator iPos, int color ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
+        int square = iPos.iR()*geometry.nC + iPos.iC();
+        if ( getColor(square) != 0 ) {
+            System.err.println("Error: This position ("+iPos.iC()+","+iPos.iR()+") is already filled.");
+            return;
+        }
+        long bit = 1L << square;
+        long board;
+        if      (color == 1) board = crosses |= bit;
+        else if (color == 2) board = noughts |= bit;
+        else                 return;
+        geometry.zobrist.toggleSquare(keys, square, color);
+        for (long line : geometry.linesThrough[square]) {
+            if ((board & line) == line) { winner = color; break; }
+        }
+    }
+
+    @Override
+    public void clearColor( InterfaceIterator iPos ) {
+        int  square = iPos.iR()*geometry.nC + iPos.iC();
+        int  color  = getColor(square);
+        if (color != 0) geometry.zobrist.toggleSquare(keys, square, color);
+        long bit = ~(1L << square);
+        crosses &= bit;
+        noughts &= bit;
+        if (winner != 0) winner = findWinner(); // Usually the line was through this square, but not necessarily
+    }
+
+    private int findWinner() {
+        for (long line : geometry.lines) {
+            if ((crosses & line) == line) return 1;
+            if ((noughts & line) == line) return 2;
+        }
+        return 0;
+    }
+
+    public int getTurnCount() {
+        return Long.bitCount(crosses | noughts);
+    }
+
+    @Override
+    public int isWinner() {
+        //      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
+        //      else if draw, return 0
+        //      else if neither winner nor draw, return -1
+        if (winner != 0) return winner;
+        return getTurnCount() == geometry.nSquares ? 0 : -1;
+    }
+
+    @Override
+    public void reset() {
+        crosses = 0;
+        noughts = 0;
+        player  = 1;
+        winner  = 0;
+        Arrays.fill(keys, 0);
+    }
+
+    @Override
+    public void setPlayer(int iPlayer) { // Only 1 or 2 are valid
+        if ( !(0<iPlayer && iPlayer<3) ) {
+            System.err.println("Error(KInARowPosition::setPlayer): iPlayer ("+iPlayer+") out of bounds!!!");
+        } else if (player != iPlayer) {
+            player = iPlayer;
+            geometry.zobrist.togglePlayer(keys);
+        }
+    }
+
+    @Override
+    public int getPlayer() {
+        return player;
+    }
+
+    @Override
+    public float valuePosition() { // From the point of view of the player to move; see KInARowEvaluator
+        return player == 1 ? KInARowEvaluator.evaluate(geometry, crosses, noughts)
+                           : KInARowEvaluator.evaluate(geometry, noughts, crosses);
+    }
+
+    //for debugging
+    public String toString() {
+        StringBuilder state = new StringBuilder();
+        for (int iR = 0; iR < geometry.nR; iR++) {
+            for (int iC = 0; iC < geometry.nC; iC++) {
+                state.append(iC == 0 ? "" : "|").append(getColor(iR*geometry.nC+iC));
+            }
+            state.append("\n");
+        }
+        return state.toString();
+    }
+
+    static class Geometry {
+        // Everything that only depends on the board size, shared by all positions of that size
+        final int      nC, nR, nK, nSquares;
+        final long[]   lines;        // Mask of every nK-long line on the board
+        final long[][] linesThrough; // linesThrough[square] are the lines that contain square
+        final ZobristKeys zobrist;
+
+        private static final Map<Integer,Geometry> cache = new HashMap<Integer,Geometry>();
+
+        static synchronized Geometry of( int nC, int nR, int nK ) {
+            Integer key = (nC << 16) | (nR << 8) | nK;
+            Geometry geometry = cache.get(key);
+            if (geometry == null) {
+                geometry = new Geometry(nC, nR, nK);
+                cache.put(key, geometry);
+            }
+            return geometry;
+        }
+
+        private Geometry( int nC, int nR, int nK ) {
+            if ( nC < 1 || nR < 1 || nC*nR > MAX_SQUARES || nK < 1 || nK > Math.max(nC, nR) ) {
+                throw new IllegalArgumentException("KInARowPosition: unsupported board "+nC+"x"+nR+" with "+nK+" in a row");
+            }
+            this.nC = nC; this.nR = nR; this.nK = nK; this.nSquares = nC*nR;
+            zobrist = ZobristKeys.of(nC, nR);
+
+            final int[][] directions = { {1,0}, {0,1}, {1,1}, {1,-1} }; // (dC,dR)
+            List<Long> allLines = new ArrayList<Long>();
+            for (int iR = 0; iR < nR; iR++) {
+                for (int iC = 0; iC < nC; iC++) {
+                    for (int[] d : directions) {
+                        int endC = iC + d[0]*(nK-1), endR = iR + d[1]*(nK-1);
+                        if (endC < 0 || endC >= nC || endR < 0 || endR >= nR) continue;
+                        long line = 0;
+                        for (int k = 0; k < nK; k++) line |= 1L << ((iR + d[1]*k)*nC + iC + d[0]*k);
+                        if (!allLines.contains(line)) allLines.add(line); // nK=1 finds each square 4 times
+                    }
+                }
+            }
+            lines = new long[allLines.size()];
+            for (int i = 0; i < lines.length; i++) lines[i] = allLines.get(i);
+
+            linesThrough = new long[nSquares][];
+            for (int square = 0; square < nSquares; square++) {
+                int count = 0;
+                for (long line : lines) if ((line >>> square & 1) != 0) count++;
+                linesThrough[square] = new long[count];
+                count = 0;
+                for (long line : lines) if ((line >>> square & 1) != 0) linesThrough[square][count++] = line;
+            }
+        }
+    }
+}
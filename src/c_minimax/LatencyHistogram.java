@@ -0,0 +1,70 @@
+package c_minimax;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+class LatencyHistogram {
+    // A fixed-size, lock-free histogram of latencies (in ns), with buckets laid out as in HdrHistogram:
+    //   values below 2*SUB_BUCKETS are counted exactly; above that, each power of 2 is split into SUB_BUCKETS
+    //   linear buckets, so any value is kept to within 1/SUB_BUCKETS (about 3%) at a constant 15 KB of memory.
+    //   bucket = shift*SUB_BUCKETS + (value >>> shift), where shift drops all but the top SUB_BUCKET_BITS+1 bits.
+    // Percentiles are reported as the highest value of their bucket (as HdrHistogram does).
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int N_BUCKETS       = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(N_BUCKETS);
+    private final LongAdder       count  = new LongAdder();
+    private final LongAdder       total  = new LongAdder();
+    private final AtomicLong      max    = new AtomicLong();
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) { } // Retry if another thread raced
+    }
+
+    private static int bucket(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+        return shift*SUB_BUCKETS + (int)(value >>> shift);
+    }
+
+    private static long highestValueOf(int bucket) {
+        int shift = bucket < 2*SUB_BUCKETS ? 0 : (bucket >> SUB_BUCKET_BITS) - 1;
+        long sub  = bucket - shift*SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    long getCount() { return count.sum(); }
+    long getMax()   { return max.get();   }
+
+    double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // The value that percentile (0..100) of the recorded values are at or below
+    long getValueAtPercentile(double percentile) {
+        long n = getCount();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < N_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(highestValueOf(bucket), getMax());
+        }
+        return getMax(); // Only if records were added during the scan
+    }
+
+    void reset() { // Not atomic with respect to concurrent record() calls
+        for (int bucket = 0; bucket < N_BUCKETS; bucket++) counts.set(bucket, 0);
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,221 @@
+package c_minimax;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class LockFreeTranspositionTable implements InterfaceTranspositionTable, InterfaceTableStatistics {
+    // A transposition table that any number of threads can use at once, without locks.
+    // Each entry is two longs in an AtomicLongArray: (key ^ data, data), where data is the value plus an OCCUPIED bit
+    //   and the generation (the search that stored it; see newSearch()).
+    //   A writer stores data, then key ^ data. A reader loads both and only accepts the entry if (check ^ data) == key,
+    //   so an entry torn by a concurrent write is simply a miss (no lock, and never a wrong value).
+    //   An empty entry is claimed with a compare-and-set of its data (from 0), so two threads never both take it,
+    //   and size counts each claimed entry once.
+    // The table never grows: it is BYTES_PER_ENTRY per entry, sized by a capacity or by a byte budget.
+    // Entries are grouped into buckets of BUCKET_SIZE (one 64-byte cache line). When a bucket is full, the policy
+    //   chooses which entry to evict (by search depth, TicTacToeTranspositionTable.depth(), and by age in searches):
+    //   ALWAYS_REPLACE  - the shallowest entry is replaced
+    //   DEPTH_PREFERRED - the shallowest entry is replaced, but only by a value searched at least as deep
+    //   AGE_PREFERRED   - entries of older searches are replaced first (each search of age counts as AGE_WEIGHT plies
+    //                     of depth), then the shallowest; so a long-lived table does not fill up with stale deep entries
+    //   TWO_TIER        - the first entry of a bucket keeps the deepest value of the current search (depth-preferred),
+    //                     the others take any new value (replacing the oldest, then the shallowest)
+    // Occupancy, evictions and rejected stores are counted, and exported over JMX for shared tables
+    //   (under c_minimax:type=TranspositionTable,name=<table name>).
+    // shared() hands out tables that live for the whole process, so that new strategy instances start warm
+    //   (and, if enabled, across processes: see PersistentTranspositionTable).
+    //   Their size can be set with -Dc_minimax.tableBytes=<bytes> (per table); otherwise the capacity asked for is used.
+
+    enum ReplacementPolicy { ALWAYS_REPLACE, DEPTH_PREFERRED, AGE_PREFERRED, TWO_TIER }
+
+    static final String BYTES_PROPERTY  = "c_minimax.tableBytes";
+    static final int    BUCKET_SIZE     = 4;
+    static final int    BYTES_PER_ENTRY = 2*8;
+    static final int    AGE_WEIGHT      = 8;
+    private static final long OCCUPIED         = 1L << 32; // Set in the data of every stored entry; an empty entry is 0
+    private static final int  GENERATION_SHIFT = 33;       // 8 bits of generation, above OCCUPIED
+
+    private final AtomicLongArray   entries;
+    private final int               bucketMask;
+    private final ReplacementPolicy policy;
+    private final AtomicInteger     size        = new AtomicInteger(); // Entries claimed (exact, but for clear())
+    private final LongAdder         evictions   = new LongAdder();     // Entries replaced by a different key
+    private final LongAdder         rejections  = new LongAdder();     // Stores the policy dropped
+    private volatile int            generation  = 0;
+
+    private static final Map<String,InterfaceTranspositionTable> sharedTables = new HashMap<String,InterfaceTranspositionTable>();
+
+    interface EntryVisitor {
+        void visit( long key, int value );
+    }
+
+    LockFreeTranspositionTable( int capacity, ReplacementPolicy policy ) { // capacity is rounded up to a power of 2
+        int nBuckets = Integer.highestOneBit(Math.max(capacity / BUCKET_SIZE, 2) - 1) << 1;
+        entries    = new AtomicLongArray(2 * BUCKET_SIZE * nBuckets);
+        bucketMask = nBuckets - 1;
+        this.policy = policy;
+    }
+
+    // The biggest table that fits in maxBytes (at least two buckets, as for any capacity; the number of buckets is a power of 2)
+    static LockFreeTranspositionTable withByteBudget( long maxBytes, ReplacementPolicy policy ) {
+        long nBuckets = Math.max(2, maxBytes / (BUCKET_SIZE * BYTES_PER_ENTRY));
+        return new LockFreeTranspositionTable((int) Long.highestOneBit(Math.min(nBuckets, 1 << 26)) * BUCKET_SIZE, policy);
+    }
+
+    // The process-wide table registered under name; created with capacity (or the byte budget) and policy on first use
+    static synchronized InterfaceTranspositionTable shared( String name, int capacity, ReplacementPolicy policy ) {
+        InterfaceTranspositionTable table = sharedTables.get(name);
+        if (table == null) {
+            String bytes = System.getProperty(BYTES_PROPERTY);
+            LockFreeTranspositionTable lockFree = bytes != null ? withByteBudget(Long.parseLong(bytes), policy)
+                                                                : new LockFreeTranspositionTable(capacity, policy);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(lockFree,
+                        new ObjectName("c_minimax:type=TranspositionTable,name=" + ObjectName.quote(name)));
+            } catch (JMException e) {
+                System.err.println("Error(LockFreeTranspositionTable::shared): cannot register "+name+" with JMX ("+e.getMessage()+")");
+            }
+            table = PersistentTranspositionTable.persistentIfEnabled(name, lockFree);
+            sharedTables.put(name, table);
+        }
+        return table;
+    }
+
+    private int firstEntry( long key ) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads the low (board) bits into the high bits
+        return ((int)(h ^ (h >>> 32)) & bucketMask) * BUCKET_SIZE;
+    }
+
+    @Override
+    public int get( long key ) {
+        int first = firstEntry(key);
+        for (int entry = first; entry < first + BUCKET_SIZE; entry++) {
+            long data = entries.get(2*entry+1);
+            if (data != 0 && (entries.get(2*entry) ^ data) == key) return (int) data;
+        }
+        return NOT_FOUND;
+    }
+
+    @Override
+    public void put( long key, int value ) {
+        int  currentGeneration = generation;
+        long data  = (value & 0xFFFFFFFFL) | OCCUPIED | ((long) currentGeneration << GENERATION_SHIFT);
+        int  first = firstEntry(key);
+        int  empty;
+        do { // Until this thread claims the empty entry it found, or there is none
+            empty = -1;
+            for (int entry = first; entry < first + BUCKET_SIZE; entry++) {
+                long stored = entries.get(2*entry+1);
+                if (stored == 0) {
+                    if (empty < 0) empty = entry;
+                } else if ((entries.get(2*entry) ^ stored) == key) {
+                    write(entry, key, data); // Same position: the newer result wins
+                    return;
+                }
+            }
+        } while (empty >= 0 && !entries.compareAndSet(2*empty+1, 0, data)); // Lost it: look at the bucket again
+        if (empty >= 0) {
+            entries.set(2*empty, key ^ data);
+            size.incrementAndGet();
+            return;
+        }
+        int victim = chooseVictim(first, TicTacToeTranspositionTable.depth(value), currentGeneration);
+        if (victim < 0) {
+            rejections.increment();
+        } else {
+            write(victim, key, data);
+            evictions.increment();
+        }
+    }
+
+    // The entry of the (full) bucket at first to replace with a value of depth, or -1 to drop the value
+    private int chooseVictim( int first, int depth, int currentGeneration ) {
+        switch (policy) {
+        case ALWAYS_REPLACE:
+            return leastWorth(first, first + BUCKET_SIZE, 0, currentGeneration);
+        case DEPTH_PREFERRED: {
+            int victim = leastWorth(first, first + BUCKET_SIZE, 0, currentGeneration);
+            return depth >= depthOf(victim) ? victim : -1;
+        }
+        case AGE_PREFERRED:
+            return leastWorth(first, first + BUCKET_SIZE, AGE_WEIGHT, currentGeneration);
+        case TWO_TIER:
+            if (depth >= depthOf(first) || ageOf(first, currentGeneration) > 0) return first;
+            return leastWorth(first + 1, first + BUCKET_SIZE, TicTacToeTranspositionTable.DEPTH_SOLVED + 1, currentGeneration);
+        default:
+            return -1;
+        }
+    }
+
+    // The entry in [from,to) with the smallest depth - ageWeight*age (the first one, on a tie)
+    private int leastWorth( int from, int to, int ageWeight, int currentGeneration ) {
+        int victim = -1, victimWorth = Integer.MAX_VALUE;
+        for (int entry = from; entry < to; entry++) {
+            int worth = depthOf(entry) - ageWeight*ageOf(entry, currentGeneration);
+            if (worth < victimWorth) {
+                victim      = entry;
+                victimWorth = worth;
+            }
+        }
+        return victim;
+    }
+
+    private int depthOf( int entry ) {
+        return TicTacToeTranspositionTable.depth((int) entries.get(2*entry+1));
+    }
+
+    private int ageOf( int entry, int currentGeneration ) { // In searches, modulo 256
+        return (currentGeneration - (int)(entries.get(2*entry+1) >>> GENERATION_SHIFT)) & 0xFF;
+    }
+
+    @Override
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    private void write( int entry, long key, long data ) {
+        entries.set(2*entry+1, data);
+        entries.set(2*entry,   key ^ data);
+    }
+
+    // Calls visitor for every stored entry. Entries stored or replaced meanwhile may or may not be visited.
+    void forEach( EntryVisitor visitor ) {
+        for (int entry = 0; entry < entries.length() / 2; entry++) {
+            long data = entries.get(2*entry+1);
+            long key  = entries.get(2*entry) ^ data;
+            if (data != 0 && get(key) == (int) data) visitor.visit(key, (int) data); // A torn entry would not be found
+        }
+    }
+
+    @Override
+    public boolean containsKey( long key ) {
+        return get(key) != NOT_FOUND;
+    }
+
+    @Override
+    public void clear() { // Not atomic: entries stored while clearing may survive
+        for (int i = 0; i < entries.length(); i++) entries.set(i, 0);
+        size.set(0);
+        evictions.reset();
+        rejections.reset();
+    }
+
+    @Override public int size()     { return size.get();          }
+    @Override public int capacity() { return entries.length() / 2; }
+
+    @Override public int    getSize()           { return size();                   }
+    @Override public int    getCapacity()       { return capacity();               }
+    @Override public double getOccupancy()      { return (double) size() / capacity(); }
+    @Override public long   getBytes()          { return (long) entries.length() * 8; }
+    @Override public long   getEvictionCount()  { return evictions.sum();          }
+    @Override public long   getRejectionCount() { return rejections.sum();         }
+    @Override public int    getGeneration()     { return generation;               }
+    @Override public String getPolicy()         { return policy.name();            }
+}
@@ -0,0 +1,255 @@
+package c_minimax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PersistentTranspositionTable implements InterfaceTranspositionTable {
+    // A LockFreeTranspositionTable backed by a snapshot file, so that a restarted process starts with a warm cache.
+    // Enabled with -Dc_minimax.tableDirectory=<dir>: every shared table (LockFreeTranspositionTable.shared())
+    //   is then saved to <dir>/<table name>.tt, every CHECKPOINT_SECONDS in the background and at exit.
+    // The snapshot is memory-mapped on the first miss of the in-memory table, and read lazily from there:
+    //   a key missing in memory is looked up in the snapshot (paged in by the OS on demand), and copied to memory if found.
+    // A checkpoint writes the entries in memory plus those of the old snapshot (up to the table's capacity,
+    //   and to MAX_ENTRIES, so that the file fits in one mapping) to a new file, which then replaces the old one.
+    //   A checkpoint that fails (for any reason) is retried at the next period.
+    //   (On Windows a mapped file cannot be replaced; the checkpoint then fails and says so, and the old one is kept.)
+    //
+    // File layout (big endian):
+    //   header: MAGIC, VERSION, nSlots (a power of 2), nEntries (4 ints)
+    //   slots:  nSlots x (long key, int value), open addressing with linear probing; a value of NOT_FOUND marks a free slot
+    // Keys are Zobrist keys (which do not change between runs) and values are TicTacToeTranspositionTable.pack() values;
+    //   VERSION must change whenever either does, so that an old snapshot is ignored instead of misread.
+
+    static final String DIRECTORY_PROPERTY = "c_minimax.tableDirectory";
+    static final int    CHECKPOINT_SECONDS = 30;
+    static final int    MAGIC              = 0x5454534E; // "TTSN"
+    static final int    VERSION            = 2; // 2: scores in units of TicTacToeTranspositionTable.SCORE_UNIT
+    private static final int HEADER_BYTES = 4*4;
+    private static final int SLOT_BYTES   = 8+4;
+    private static final int MAX_SLOTS    = 1 << 27; // The biggest power of 2 whose file is under 2 GB, the limit of a mapping
+    static final int         MAX_ENTRIES  = MAX_SLOTS / 2;
+
+    private final LockFreeTranspositionTable table;
+    private final Path       file;
+    private final AtomicLong changes = new AtomicLong(); // Puts since the last checkpoint
+    private volatile boolean mapped  = false;            // Whether the snapshot was mapped (or found missing)
+    private volatile Snapshot snapshot = null;
+    private ScheduledExecutorService checkpointer = null;
+
+    PersistentTranspositionTable( Path file, LockFreeTranspositionTable table ) {
+        this.file  = file;
+        this.table = table;
+    }
+
+    // table itself if persistence is not enabled; otherwise table, saved under name, with background checkpoints
+    static InterfaceTranspositionTable persistentIfEnabled( String name, LockFreeTranspositionTable table ) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null) return table;
+        final PersistentTranspositionTable persistent =
+                new PersistentTranspositionTable(Paths.get(directory, name.replaceAll("[^A-Za-z0-9]+", "_") + ".tt"), table);
+        persistent.startCheckpoints(CHECKPOINT_SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override public void run() { persistent.close(); }
+        });
+        return persistent;
+    }
+
+    @Override
+    public int get( long key ) {
+        int value = table.get(key);
+        if (value == NOT_FOUND) {
+            Snapshot saved = snapshot();
+            if (saved != null) {
+                value = saved.get(key);
+                if (value != NOT_FOUND) table.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put( long key, int value ) {
+        table.put(key, value);
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public boolean containsKey( long key ) {
+        return get(key) != NOT_FOUND;
+    }
+
+    @Override
+    public void clear() { // Also forgets the snapshot (the file is emptied by the next checkpoint)
+        table.clear();
+        mapped   = true;
+        snapshot = null;
+        changes.incrementAndGet();
+    }
+
+    @Override public int size()     { return table.size();     } // In memory; entries only in the snapshot are not counted
+    @Override public int capacity() { return table.capacity(); }
+
+    @Override public void newSearch() { table.newSearch(); }
+
+    private Snapshot snapshot() {
+        if (!mapped) {
+            synchronized (this) {
+                if (!mapped) {
+                    try {
+                        if (Files.exists(file)) snapshot = Snapshot.map(file);
+                    } catch (IOException e) {
+                        System.err.println("Error(PersistentTranspositionTable::snapshot): ignoring "+file+" ("+e.getMessage()+")");
+                    }
+                    mapped = true;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    void startCheckpoints( int periodSeconds ) {
+        checkpointer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "checkpoint " + file.getFileName());
+                thread.setDaemon(true); // Does not keep the process alive; close() writes the last checkpoint
+                return thread;
+            }
+        });
+        checkpointer.scheduleWithFixedDelay(new Runnable() {
+            @Override public void run() { checkpoint(); } // Never throws, which would cancel every later checkpoint
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    // Writes the table (and what is left of the old snapshot) to the file, if anything changed since the last time
+    synchronized void checkpoint() {
+        if (changes.getAndSet(0) == 0) return;
+        try {
+            write();
+        } catch (IOException | RuntimeException | OutOfMemoryError e) { // No heap left for the snapshot is not fatal
+            System.err.println("Error(PersistentTranspositionTable::checkpoint): cannot write "+file+" ("+e+")");
+            changes.incrementAndGet(); // Try again next time
+        }
+    }
+
+    private void write() throws IOException { // The work of checkpoint()
+        final Snapshot old     = snapshot();
+        int            maxSize = Math.min(table.capacity(), MAX_ENTRIES);
+        final SnapshotWriter writer = new SnapshotWriter((int) Math.min(maxSize, (long) table.size() + (old == null ? 0 : old.nEntries)));
+        table.forEach(new LockFreeTranspositionTable.EntryVisitor() {
+            @Override public void visit(long key, int value) { writer.add(key, value); }
+        });
+        if (old != null) {
+            for (int slot = 0; slot <= old.mask && writer.nEntries < maxSize; slot++) {
+                int value = old.valueAt(slot);
+                if (value != NOT_FOUND) writer.add(old.keyAt(slot), value); // Kept if not already written from memory
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        writer.writeTo(temporary);
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        snapshot = Snapshot.map(file);
+    }
+
+    // Stops the background checkpoints, and writes a last one
+    void close() {
+        if (checkpointer != null) checkpointer.shutdownNow();
+        checkpoint();
+    }
+
+    private static class Snapshot {
+        final ByteBuffer buffer; // Only read with absolute gets, so it can be shared by threads
+        final int        mask;
+        final int        nEntries;
+
+        private Snapshot( ByteBuffer buffer ) throws IOException {
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("not a transposition table snapshot (version "+VERSION+")");
+            }
+            int nSlots = buffer.getInt(8);
+            if (Integer.bitCount(nSlots) != 1 || buffer.capacity() != HEADER_BYTES + (long) nSlots*SLOT_BYTES) {
+                throw new IOException("snapshot is truncated or corrupt");
+            }
+            this.buffer   = buffer;
+            this.mask     = nSlots - 1;
+            this.nEntries = buffer.getInt(12);
+        }
+
+        static Snapshot map( Path file ) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Snapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        long keyAt(   int slot ) { return buffer.getLong(HEADER_BYTES + slot*SLOT_BYTES);    }
+        int  valueAt( int slot ) { return buffer.getInt( HEADER_BYTES + slot*SLOT_BYTES + 8); }
+
+        int get( long key ) {
+            for (int slot = firstSlot(key, mask); ; slot = (slot + 1) & mask) { // Terminates since it is never full
+                int value = valueAt(slot);
+                if (value == NOT_FOUND) return NOT_FOUND;
+                if (keyAt(slot) == key) return value;
+            }
+        }
+    }
+
+    private static class SnapshotWriter { // Builds a snapshot of up to maxEntries (at most MAX_ENTRIES) entries in memory
+        final ByteBuffer buffer;
+        final int        mask;
+        int              nEntries = 0;
+
+        SnapshotWriter( int maxEntries ) {
+            long nWanted = Math.max(2L*maxEntries, 2); // At most half full
+            int  nSlots  = (int) Math.min(Long.highestOneBit(nWanted - 1) << 1, MAX_SLOTS);
+            buffer = ByteBuffer.allocate(HEADER_BYTES + nSlots*SLOT_BYTES); // Under 2 GB, since nSlots <= MAX_SLOTS
+            mask   = nSlots - 1;
+            for (int slot = 0; slot < nSlots; slot++) buffer.putInt(HEADER_BYTES + slot*SLOT_BYTES + 8, NOT_FOUND);
+        }
+
+        void add( long key, int value ) { // Ignored if key is already there, or the snapshot is full
+            if (2*(nEntries + 1) > mask + 1) return;
+            for (int slot = firstSlot(key, mask); ; slot = (slot + 1) & mask) {
+                int offset = HEADER_BYTES + slot*SLOT_BYTES;
+                if (buffer.getInt(offset + 8) == NOT_FOUND) {
+                    buffer.putLong(offset, key).putInt(offset + 8, value);
+                    nEntries++;
+                    return;
+                }
+                if (buffer.getLong(offset) == key) return;
+            }
+        }
+
+        void writeTo( Path file ) throws IOException {
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, mask + 1).putInt(12, nEntries);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer all = buffer.duplicate();
+                all.clear();
+                while (all.hasRemaining()) channel.write(all);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static int firstSlot( long key, int mask ) {
+        long h = key * 0x9E3779B97F4A7C15L; // As in LockFreeTranspositionTable
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,70 @@
+package c_minimax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+class SearchMetrics {
+    // What one search (one getBestMove) did, beyond its node count (TicTacToeSearchInfo.getNodeCount()):
+    //   transposition table probes, hits and stores, alpha-beta cutoffs,
+    //   and, for each completed iteration (depth) of iterative deepening, its nodes and time.
+    // The counters are LongAdders, since every thread of a parallel search updates them.
+    // The process-wide totals over many searches are kept by SearchStatistics.
+
+    private final LongAdder ttProbes = new LongAdder();
+    private final LongAdder ttHits   = new LongAdder();
+    private final LongAdder ttStores = new LongAdder();
+    private final LongAdder cutoffs  = new LongAdder();
+    private final List<long[]> iterations = new ArrayList<long[]>(); // {depth, nodes, nanos} per completed iteration
+
+    void probe(boolean hit) {
+        ttProbes.increment();
+        if (hit) ttHits.increment();
+    }
+
+    void store()  { ttStores.increment(); }
+    void cutoff() { cutoffs.increment();  }
+
+    synchronized void iterationComplete(int depth, long nodes, long nanos) {
+        iterations.add(new long[] { depth, nodes, nanos });
+    }
+
+    long getTtProbes() { return ttProbes.sum(); }
+    long getTtHits()   { return ttHits.sum();   }
+    long getTtStores() { return ttStores.sum(); }
+    long getCutoffs()  { return cutoffs.sum();  }
+
+    double getTtHitRate() {
+        long probes = getTtProbes();
+        return probes == 0 ? 0 : (double) getTtHits() / probes;
+    }
+
+    // The depth of the deepest completed iteration (0 if none completed)
+    synchronized int getMaxDepth() {
+        int maxDepth = 0;
+        for (long[] iteration : iterations) maxDepth = Math.max(maxDepth, (int) iteration[0]);
+        return maxDepth;
+    }
+
+    // Effective branching factor: how many times more nodes the last iteration took than the one before it
+    //   (or, with a single iteration, the nodes^(1/depth) of that one)
+    synchronized double getBranchingFactor() {
+        int n = iterations.size();
+        if (n == 0) return 0;
+        long[] last = iterations.get(n-1);
+        if (n == 1 || iterations.get(n-2)[1] == 0) return Math.pow(last[1], 1.0 / Math.max(1, last[0]));
+        return (double) last[1] / iterations.get(n-2)[1];
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder plies = new StringBuilder();
+        for (long[] iteration : iterations) {
+            if (plies.length() > 0) plies.append(", ");
+            plies.append("d").append(iteration[0]).append(": ").append(iteration[2] / 1000000.0).append(" ms/")
+                 .append(iteration[1]).append(" nodes");
+        }
+        return "depth " + getMaxDepth() + ", TT probes " + getTtProbes() + " (hits " + (100*getTtHitRate()) + "%), stores "
+               + getTtStores() + ", cutoffs " + getCutoffs() + ", branching factor " + getBranchingFactor() + ", per ply [" + plies + "]";
+    }
+}
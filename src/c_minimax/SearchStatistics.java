@@ -0,0 +1,101 @@
+package c_minimax;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class SearchStatistics implements InterfaceSearchStatistics {
+    // Totals over every getBestMove of one strategy: each strategy records its search once it is done
+    //   (with the node count and SearchMetrics of the search's context), from any thread.
+    // One instance per strategy name, registered with the platform MBean server on first use.
+
+    private static final Map<String,SearchStatistics> byStrategy = new LinkedHashMap<String,SearchStatistics>();
+
+    private final String           name;
+    private final LatencyHistogram latency  = new LatencyHistogram();
+    private final LongAdder        nodes    = new LongAdder();
+    private final LongAdder        ttProbes = new LongAdder();
+    private final LongAdder        ttHits   = new LongAdder();
+    private final LongAdder        ttStores = new LongAdder();
+    private final LongAdder        cutoffs  = new LongAdder();
+
+    private SearchStatistics(String name) { this.name = name; }
+
+    static synchronized SearchStatistics of(String strategyName) {
+        SearchStatistics statistics = byStrategy.get(strategyName);
+        if (statistics == null) {
+            statistics = new SearchStatistics(strategyName);
+            byStrategy.put(strategyName, statistics);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(statistics,
+                        new ObjectName("c_minimax:type=SearchStatistics,name=" + ObjectName.quote(strategyName)));
+            } catch (JMException e) {
+                System.err.println("Error(SearchStatistics::of): cannot register "+strategyName+" with JMX ("+e.getMessage()+")");
+            }
+        }
+        return statistics;
+    }
+
+    static synchronized Iterable<SearchStatistics> all() {
+        return new ArrayList<SearchStatistics>(byStrategy.values());
+    }
+
+    // Called by a strategy at the end of getBestMove
+    void record(TicTacToeSearchInfo context, long nanos) {
+        latency.record(nanos);
+        nodes.add(context.getNodeCount());
+        SearchMetrics metrics = context.getMetrics();
+        ttProbes.add(metrics.getTtProbes());
+        ttHits  .add(metrics.getTtHits());
+        ttStores.add(metrics.getTtStores());
+        cutoffs .add(metrics.getCutoffs());
+    }
+
+    String getName() { return name; }
+
+    @Override public long   getMoveCount()      { return latency.getCount(); }
+    @Override public long   getNodeCount()      { return nodes.sum(); }
+    @Override public long   getTtProbeCount()   { return ttProbes.sum(); }
+    @Override public long   getTtStoreCount()   { return ttStores.sum(); }
+    @Override public long   getCutoffCount()    { return cutoffs.sum(); }
+    @Override public double getMeanMillis()     { return latency.getMean() / 1e6; }
+    @Override public double getP50Millis()      { return latency.getValueAtPercentile(50)   / 1e6; }
+    @Override public double getP90Millis()      { return latency.getValueAtPercentile(90)   / 1e6; }
+    @Override public double getP99Millis()      { return latency.getValueAtPercentile(99)   / 1e6; }
+    @Override public double getP999Millis()     { return latency.getValueAtPercentile(99.9) / 1e6; }
+    @Override public double getMaxMillis()      { return latency.getMax() / 1e6; }
+
+    @Override
+    public double getTtHitRate() {
+        long probes = getTtProbeCount();
+        return probes == 0 ? 0 : (double) ttHits.sum() / probes;
+    }
+
+    @Override
+    public double getNodesPerSecond() {
+        double seconds = latency.getMean() * latency.getCount() / 1e9;
+        return seconds == 0 ? 0 : getNodeCount() / seconds;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        nodes.reset();
+        ttProbes.reset();
+        ttHits.reset();
+        ttStores.reset();
+        cutoffs.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getMoveCount() + " moves, " + getNodeCount() + " nodes (" + getNodesPerSecond() + " nodes/sec), TT hits "
+               + (100*getTtHitRate()) + "%, cutoffs " + getCutoffCount() + "; ms mean " + getMeanMillis() + ", p50 " + getP50Millis()
+               + ", p90 " + getP90Millis() + ", p99 " + getP99Millis() + ", p99.9 " + getP999Millis() + ", max " + getMaxMillis();
+    }
+}
@@ -0,0 +1,19 @@
+package c_minimax;
+
+public class SynchronizedTranspositionTable implements InterfaceTranspositionTable {
+    // Makes any transposition table safe to share between threads, by locking it for every call.
+
+    private final InterfaceTranspositionTable table;
+
+    SynchronizedTranspositionTable( InterfaceTranspositionTable table ) {
+        this.table = table;
+    }
+
+    @Override public synchronized int     get( long key )            { return table.get(key);         }
+    @Override public synchronized void    put( long key, int value ) {        table.put(key, value);  }
+    @Override public synchronized boolean containsKey( long key )    { return table.containsKey(key); }
+    @Override public synchronized void    clear()                    {        table.clear();          }
+    @Override public synchronized int     size()                     { return table.size();           }
+    @Override public synchronized int     capacity()                 { return table.capacity();       }
+    @Override public synchronized void    newSearch()                {        table.newSearch();      }
+}
@@ -0,0 +1,236 @@
+package c_minimax;
+
+public class TicTacToeAlphaBetaStrategy implements InterfaceStrategy {
+    // Iterative deepening over a negamax search with an alpha-beta window.
+    // getBestMove() searches to depth 1, 2, ... until the max depth or max time (from the context) is reached.
+    //   A move is only taken from a completed iteration; an iteration that runs out of time is thrown away.
+    //   Each iteration tries the best move of the previous one first.
+    // Moves are tried in the order of TicTacToeMoveOrdering (by default with all of its heuristics).
+    // The search makes and unmakes moves (setColor/clearColor) on a single copy of the position,
+    //   and returns scores as floats and moves in bestMoveAt[ply], so once set up it allocates nothing.
+    // A score outside the window is only a bound, so it is saved with its bound type and depth.
+    // At the depth limit (the horizon) a position is scored with valuePosition().
+    //   Scores are fractional, so the table keeps them in units of TicTacToeTranspositionTable.SCORE_UNIT.
+    // The search stops, as if out of time, once the context passed to getBestMove() is cancelled.
+    // Positions are keyed by their canonical Zobrist key (getHashKey(getCanonicalSymmetry())), with the best move
+    //   in canonical coordinates, so symmetric positions share one entry. Works on any board size.
+
+    static final int LARGE_TABLE_CAPACITY = 1 << 20; // For boards bigger than 3x3
+
+    private InterfaceTranspositionTable hashedStates = null; // By default, the shared table for the board of the first search
+    private int     heuristics = TicTacToeMoveOrdering.DEFAULT; // Of the move ordering
+    private long    deadline;  // System.nanoTime() after which the current iteration is abandoned
+    private boolean outOfTime;
+    private TicTacToeSearchInfo root; // Context of the whole search, checked for cancel()
+    private SearchMetrics       metrics; // Of root
+
+    // State of one search, set up by prepare()
+    private InterfacePosition board;      // The position moves are made and unmade on
+    private InterfaceIterator iPos;       // Reused for every square
+    private int[]             bestMoveAt; // bestMoveAt[ply] is the best move (square) found at that ply
+    private TicTacToeMoveOrdering ordering;
+    private int               nC;
+    private int               nSquares;
+    private ZobristKeys       zobrist;    // For the symmetries of the board
+    private long              nodes;
+
+    TicTacToeAlphaBetaStrategy() {  }
+    TicTacToeAlphaBetaStrategy(InterfaceTranspositionTable hashedStates) { this.hashedStates = hashedStates; }
+    TicTacToeAlphaBetaStrategy(InterfaceTranspositionTable hashedStates, int heuristics) { // TicTacToeMoveOrdering.NONE .. ALL
+        this.hashedStates = hashedStates;
+        this.heuristics   = heuristics;
+    }
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        if (hashedStates == null) hashedStates = sharedTable(position);
+        hashedStates.newSearch(); // Entries of earlier searches age, for the table's replacement policy
+        // Each search runs on its own instance, so that searches on different threads
+        //   (e.g., one being cancelled and the one replacing it) do not share deadline, outOfTime and root
+        long startTime = System.nanoTime();
+        new TicTacToeAlphaBetaStrategy(hashedStates, heuristics).iterativeDeepening(position, (TicTacToeSearchInfo) context);
+        long nanos = System.nanoTime() - startTime; // Before of(), which registers with JMX on first use
+        SearchStatistics.of("alpha-beta").record((TicTacToeSearchInfo) context, nanos);
+    }
+
+    private void iterativeDeepening(InterfacePosition position, TicTacToeSearchInfo info) {
+        root           = info;
+        metrics        = info.getMetrics();
+        prepare(position);
+        int  nEmpty    = nEmpty(position);
+        int  maxDepth  = info.getMaxDepthSearchForThisPos();
+        int  minDepth  = Math.max(1, info.getMinDepthSearchForThisPos()); // Always complete depth 1 to have a move
+        long maxTime   = info.getMaxSearchTimeForThisPos() * 1000000L;    // ms -> ns
+        long startTime = System.nanoTime();
+        float alpha    = info.getOwnBestScoreTwoMovesBackSoFar();
+        float beta     = -info.getOpponentBestScoreOnPreviousMoveSoFar();
+        if (maxDepth <= 0 || maxDepth > nEmpty) maxDepth = nEmpty;
+
+        int firstMove = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            deadline  = (maxTime > 0 && depth > minDepth) ? startTime + maxTime : Long.MAX_VALUE;
+            outOfTime = false;
+            nodes     = 0;
+            long  iterationStart = System.nanoTime();
+            float score = search(depth, alpha, beta, 0, firstMove);
+            info.addNodeCount(nodes);
+            if (outOfTime) break;
+            metrics.iterationComplete(depth, nodes, System.nanoTime() - iterationStart);
+
+            firstMove = bestMoveAt[0];
+            iPos.set(firstMove%nC, firstMove/nC);
+            info.setBestMoveSoFar(iPos, score);
+            if (Math.abs(score) >= 1) break; // The game is decided; deeper will not change it
+        }
+    }
+
+    // Searches one position to depth, within the window set in info (for callers that drive the search themselves)
+    // Returns false if the deadline passed or root was cancelled, in which case info holds no result.
+    boolean searchToDepth(InterfacePosition position, TicTacToeSearchInfo info, int depth, long deadline, TicTacToeSearchInfo root) {
+        this.deadline  = deadline;
+        this.outOfTime = false;
+        this.root      = root;
+        this.metrics   = root.getMetrics();
+        prepare(position);
+        float score = search(depth, info.getOwnBestScoreTwoMovesBackSoFar(), -info.getOpponentBestScoreOnPreviousMoveSoFar(), 0, -1);
+        info.addNodeCount(nodes);
+        if (outOfTime) return false;
+        iPos.set(bestMoveAt[0]%nC, bestMoveAt[0]/nC);
+        info.setBestMoveSoFar(iPos, score);
+        return true;
+    }
+
+    private void prepare(InterfacePosition position) {
+        board      = copyOf(position);
+        nC         = position.nC();
+        nSquares   = nC*position.nR();
+        iPos       = new TicTacToeIterator(nC, position.nR());
+        bestMoveAt = new int[nSquares+1];
+        zobrist    = ZobristKeys.of(nC, position.nR());
+        ordering   = new TicTacToeMoveOrdering(heuristics, nC, position.nR(), nK(position));
+        nodes      = 0;
+    }
+
+    // Negamax score of board for the player to move, within (alpha,beta); its best move is left in bestMoveAt[ply].
+    //   If the search runs out of time, the result is meaningless (and outOfTime is set).
+    private float search(int depth, float alpha, float beta, int ply, int firstMove) {
+        nodes++;
+        if (root.isCancelled() || (deadline != Long.MAX_VALUE && System.nanoTime() > deadline)) {
+            outOfTime = true;
+            return 0;
+        }
+        int   player   = board.getPlayer();
+        int   opponent = 3-player; // There are two players, 1 and 2.
+        float alphaOriginal = alpha;
+        depth = Math.min(depth, nEmpty(board)); // Deeper is the same as solved
+
+        int  symmetry = board.getCanonicalSymmetry();
+        long key      = board.getHashKey(symmetry);
+        int saved = hashedStates.get(key);
+        metrics.probe(saved != InterfaceTranspositionTable.NOT_FOUND);
+        if (saved != InterfaceTranspositionTable.NOT_FOUND) {
+            float score = TicTacToeTranspositionTable.fromScore(TicTacToeTranspositionTable.score(saved));
+            int bound = TicTacToeTranspositionTable.bound(saved);
+            int move  = mapSquare(TicTacToeTranspositionTable.move(saved), zobrist.inverse[symmetry]);
+            if (firstMove < 0) firstMove = move; // Try the saved best move first
+            if ( TicTacToeTranspositionTable.depth(saved) >= depth
+              && ( bound == TicTacToeTranspositionTable.BOUND_EXACT
+               || (bound == TicTacToeTranspositionTable.BOUND_LOWER && score >= beta )
+               || (bound == TicTacToeTranspositionTable.BOUND_UPPER && score <= alpha) ) ) {
+                bestMoveAt[ply] = move;
+                return score;
+            }
+        }
+
+        float best     = Float.NEGATIVE_INFINITY;
+        int   bestMove = -1;
+        int   nMoves   = ordering.generate(board, iPos, ply, firstMove);
+        int[] moves    = ordering.movesAt(ply); // Overwritten only by deeper plies
+        for ( int i = 0; i < nMoves; i++ ) {
+            int square = moves[i];
+            iPos.set(square%nC, square/nC);
+
+            board.setColor(iPos, player); // Make the move
+            board.setPlayer(opponent);
+            float score;
+            int isWin = board.isWinner();
+            if (isWin != -1) { // The game is finished
+                score = isWin == player ? 1 : isWin == opponent ? -1 : 0;
+                nodes++;
+            } else if (depth <= 1) { // The horizon
+                score = -board.valuePosition();
+                nodes++;
+            } else {
+                score = -search(depth-1, -beta, -alpha, ply+1, -1);
+                iPos.set(square%nC, square/nC); // The child search moved it
+            }
+            board.clearColor(iPos); // Unmake the move
+            board.setPlayer(player);
+            if (outOfTime) return 0; // The score is incomplete; do not use or save it
+
+            if (score > best) {
+                best     = score;
+                bestMove = square;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) { // Cutoff: the opponent will not allow this position
+                    metrics.cutoff();
+                    ordering.cutoff(ply, player, square, depth);
+                    break;
+                }
+            }
+        }
+
+        int bound = best <= alphaOriginal ? TicTacToeTranspositionTable.BOUND_UPPER
+                  : best >= beta          ? TicTacToeTranspositionTable.BOUND_LOWER
+                                          : TicTacToeTranspositionTable.BOUND_EXACT;
+        hashedStates.put(key, TicTacToeTranspositionTable.pack(TicTacToeTranspositionTable.toScore(best), mapSquare(bestMove, symmetry), bound, depth));
+        metrics.store();
+        bestMoveAt[ply] = bestMove;
+        return best;
+    }
+
+    // The table shared by every alpha-beta search (sequential or parallel) of this kind of board.
+    //   Keys of different board sizes can collide, so each size has its own table.
+    //   TWO_TIER keeps deep results in the table while the shallow entries turn over, which matters once the table
+    //   is full (e.g., under -Dc_minimax.tableBytes).
+    static InterfaceTranspositionTable sharedTable(InterfacePosition position) {
+        if (position instanceof TicTacToePosition) {
+            return LockFreeTranspositionTable.shared("alpha-beta TicTacToePosition",
+                    TicTacToeTranspositionTable.DEFAULT_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER);
+        }
+        KInARowPosition kInARow = (KInARowPosition) position;
+        return LockFreeTranspositionTable.shared("alpha-beta KInARowPosition "+kInARow.nC()+"x"+kInARow.nR()+"x"+kInARow.nK(),
+                LARGE_TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER);
+    }
+
+    InterfacePosition copyOf(InterfacePosition position) {
+        if (position instanceof TicTacToePosition) return new TicTacToePosition(position, hashedStates);
+        else                                       return new KInARowPosition(position);
+    }
+
+    static int nEmpty(InterfacePosition position) {
+        if (position instanceof TicTacToePosition) return 9 - ((TicTacToePosition) position).getTurnCount();
+        else return position.nC()*position.nR() - ((KInARowPosition) position).getTurnCount();
+    }
+
+    static int nK(InterfacePosition position) {
+        if (position instanceof TicTacToePosition) return 3;
+        else return ((KInARowPosition) position).nK();
+    }
+
+    private int mapSquare(int square, int symmetry) {
+        return zobrist.symmetry[symmetry][square];
+    }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
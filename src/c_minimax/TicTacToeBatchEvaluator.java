@@ -0,0 +1,200 @@
+package c_minimax;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TicTacToeBatchEvaluator {
+    // Scores many positions per call, for analysis: evaluate() takes packed positions (getRawPosition()) in a long[]
+    //   and fills the score (from the point of view of the player to move, as in InterfaceSearchInfo) and the best move
+    //   (square nC*iR+iC, -1 if the game is over) of each in parallel arrays.
+    // All positions share one warm transposition table (by default the one shared with TicTacToeAlphaBetaStrategy):
+    //   a position whose exact value is already in it, to the depth asked for, is answered by one probe,
+    //   with no search, no context and no allocation. Any other is searched with TicTacToeAlphaBetaStrategy,
+    //   which leaves its value (and those below it) in the table for the next batches.
+    // A batch is split into ranges of at least GRAIN positions, run as tasks in a ForkJoinPool (one worker per core);
+    //   a batch of at most GRAIN positions runs on the caller's thread. Each task decodes into one reused position.
+    //   The default pool is shared by all default instances; a caller that passes its own pool owns it,
+    //   and shuts it down when done.
+    // Positions are TicTacToePosition ones on 3x3 with 3 in a row, otherwise KInARowPosition ones (up to 31 squares,
+    //   where getRawPosition() is exact). The max depth is 0 (to the end of the game) unless set.
+    // Throughput is kept per batch size (by powers of 2): see throughputReport().
+
+    static final int GRAIN = 256;
+
+    private static ForkJoinPool sharedPool = null; // One worker per core, shared by all default instances
+
+    private final ForkJoinPool pool;
+    private final InterfaceTranspositionTable hashedStates;
+    private final int         nC, nR, nK;
+    private final ZobristKeys zobrist;
+    private int               maxDepth = 0;
+
+    private final LongAdder       hits     = new LongAdder(); // Positions answered from the table
+    private final LongAdder       searched = new LongAdder(); // Positions searched
+    private final AtomicLongArray bucketPositions = new AtomicLongArray(32); // [log2(batch size)]
+    private final AtomicLongArray bucketNanos     = new AtomicLongArray(32);
+    private final AtomicLongArray bucketBatches   = new AtomicLongArray(32);
+
+    TicTacToeBatchEvaluator() { // 3x3, 3 in a row
+        this(3, 3, 3);
+    }
+    TicTacToeBatchEvaluator(int nC, int nR, int nK) {
+        this(getSharedPool(), nC, nR, nK, TicTacToeAlphaBetaStrategy.sharedTable(newPosition(nC, nR, nK)));
+    }
+    TicTacToeBatchEvaluator(ForkJoinPool pool, int nC, int nR, int nK, InterfaceTranspositionTable hashedStates) {
+        this.pool         = pool;
+        this.nC           = nC;
+        this.nR           = nR;
+        this.nK           = nK;
+        this.zobrist      = ZobristKeys.of(nC, nR);
+        this.hashedStates = hashedStates;
+        if (!isClassic() && nC*nR > 31) {
+            System.err.println("Error(TicTacToeBatchEvaluator): "+nC+"x"+nR+" positions do not fit getRawPosition()");
+        }
+    }
+
+    private static synchronized ForkJoinPool getSharedPool() {
+        if (sharedPool == null) sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        return sharedPool;
+    }
+
+    void setMaxDepth(int maxDepth) { this.maxDepth = maxDepth; } // 0: to the end of the game
+
+    private boolean isClassic() { return nC == 3 && nR == 3 && nK == 3; }
+
+    private static InterfacePosition newPosition(int nC, int nR, int nK) {
+        return nC == 3 && nR == 3 && nK == 3 ? new TicTacToePosition() : new KInARowPosition(nC, nR, nK);
+    }
+
+    // Scores positions[i] into scores[i] and bestMoves[i], for every i
+    void evaluate(long[] positions, float[] scores, int[] bestMoves) {
+        evaluate(positions, 0, positions.length, scores, bestMoves);
+    }
+
+    // Scores positions[from..to-1] into the same indices of scores and bestMoves
+    void evaluate(long[] positions, int from, int to, float[] scores, int[] bestMoves) {
+        if (scores.length < to || bestMoves.length < to) {
+            System.err.println("Error(TicTacToeBatchEvaluator::evaluate): the result arrays are shorter than the batch");
+            return;
+        }
+        long startTime = System.nanoTime();
+        hashedStates.newSearch();
+        int n = to - from;
+        if (n <= GRAIN) new Worker().evaluate(positions, from, to, scores, bestMoves);
+        else            pool.invoke(new BatchTask(positions, from, to, scores, bestMoves,
+                                                  Math.max(GRAIN, n / (4*pool.getParallelism()))));
+        int bucket = 31 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+        bucketPositions.addAndGet(bucket, n);
+        bucketNanos    .addAndGet(bucket, System.nanoTime() - startTime);
+        bucketBatches  .incrementAndGet(bucket);
+    }
+
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long[]  positions;
+        private final int     from, to, grain;
+        private final float[] scores;
+        private final int[]   bestMoves;
+
+        BatchTask(long[] positions, int from, int to, float[] scores, int[] bestMoves, int grain) {
+            this.positions = positions;
+            this.from      = from;
+            this.to        = to;
+            this.scores    = scores;
+            this.bestMoves = bestMoves;
+            this.grain     = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                new Worker().evaluate(positions, from, to, scores, bestMoves);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(positions, from, middle, scores, bestMoves, grain),
+                      new BatchTask(positions, middle, to, scores, bestMoves, grain));
+        }
+    }
+
+    // The state of one thread over a range: a position to decode into, and a search for table misses
+    private class Worker {
+        private final InterfacePosition          position = newPosition(nC, nR, nK);
+        private final InterfaceIterator          iPos     = new TicTacToeIterator(nC, nR);
+        private final TicTacToeAlphaBetaStrategy search   = new TicTacToeAlphaBetaStrategy(hashedStates);
+
+        void evaluate(long[] positions, int from, int to, float[] scores, int[] bestMoves) {
+            for (int i = from; i < to; i++) {
+                decode(positions[i]);
+                int winner = position.isWinner();
+                if (winner != -1) { // Nothing to play
+                    scores[i]    = winner == 0 ? 0 : winner == position.getPlayer() ? 1 : -1;
+                    bestMoves[i] = -1;
+                    continue;
+                }
+                int nEmpty = TicTacToeAlphaBetaStrategy.nEmpty(position);
+                int depth  = maxDepth > 0 ? Math.min(maxDepth, nEmpty) : nEmpty;
+                if (!probe(depth, scores, bestMoves, i)) {
+                    searchPosition(depth, scores, bestMoves, i);
+                }
+            }
+        }
+
+        // Answers position i from the table if it holds its exact value to depth
+        private boolean probe(int depth, float[] scores, int[] bestMoves, int i) {
+            int symmetry = position.getCanonicalSymmetry();
+            int saved    = hashedStates.get(position.getHashKey(symmetry));
+            if ( saved == InterfaceTranspositionTable.NOT_FOUND
+              || TicTacToeTranspositionTable.bound(saved) != TicTacToeTranspositionTable.BOUND_EXACT
+              || TicTacToeTranspositionTable.depth(saved) < depth ) return false;
+            scores[i]    = TicTacToeTranspositionTable.fromScore(TicTacToeTranspositionTable.score(saved));
+            bestMoves[i] = zobrist.symmetry[zobrist.inverse[symmetry]][TicTacToeTranspositionTable.move(saved)];
+            hits.increment();
+            return true;
+        }
+
+        private void searchPosition(int depth, float[] scores, int[] bestMoves, int i) {
+            TicTacToeSearchInfo info = new TicTacToeSearchInfo(); // Full window, so the value is exact
+            search.searchToDepth(position, info, depth, Long.MAX_VALUE, info);
+            InterfaceIterator bestMove = info.getBestMoveSoFar();
+            scores[i]    = info.getBestScoreSoFar();
+            bestMoves[i] = nC*bestMove.iR() + bestMove.iC();
+            searched.increment();
+        }
+
+        private void decode(long raw) {
+            if (position instanceof TicTacToePosition) {
+                ((TicTacToePosition) position).setRawPosition((int) raw);
+                return;
+            }
+            position.reset(); // KInARowPosition: crosses in bits 0-30, noughts in bits 31-61, player in bit 62
+            for (int square = 0; square < nC*nR; square++) {
+                int color = ((raw >>> square) & 1) != 0 ? 1 : ((raw >>> (31+square)) & 1) != 0 ? 2 : 0;
+                if (color == 0) continue;
+                iPos.set(square%nC, square/nC);
+                position.setColor(iPos, color);
+            }
+            position.setPlayer((int) (raw >>> 62) + 1);
+        }
+    }
+
+    long getHitCount()      { return hits.sum();     }
+    long getSearchedCount() { return searched.sum(); }
+
+    // Positions per second by batch size, over every evaluate() so far
+    String throughputReport() {
+        StringBuilder report = new StringBuilder();
+        for (int bucket = 0; bucket < 32; bucket++) {
+            long nBatches = bucketBatches.get(bucket);
+            if (nBatches == 0) continue;
+            long positions = bucketPositions.get(bucket), nanos = bucketNanos.get(bucket);
+            report.append("batch size ").append(1L << bucket).append("-").append((2L << bucket) - 1).append(": ")
+                  .append(nBatches).append(" batches, ").append(positions).append(" positions, ")
+                  .append(String.format("%.0f", positions * 1e9 / Math.max(nanos, 1))).append(" positions/s\n");
+        }
+        report.append("table hits ").append(getHitCount()).append(", searched ").append(getSearchedCount());
+        return report.toString();
+    }
+}
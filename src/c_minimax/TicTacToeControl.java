@@ -1,119 +1,171 @@
-package c_minimax;
-
-//author: Gary Kalmanovich; rights reserved
-
-public class TicTacToeControl implements InterfaceControl{
-    // This is the controller class. 
-    // In general this class would also be a model class.
-    //   However, I used code from someone else that keeps a different architecture
-    // Its responsibilities would be:
-    //   - to make sure that the rules of the game are followed
-    //   - to check if there is a winner in a particular position
-    //   - to notify Strategy if Strategy is playing
-    //   - this class can keep current state of the game
-    // As is, most of the relevant responsibility is with the GameManager and Game classes
-    // These are available to this class through composition
-    
-    private InterfaceView     view;
-    private GameManager       gameManager;
-    private InterfaceStrategy xStrategy = null;// new TicTacToeStrategy();// 
-    private InterfaceStrategy oStrategy = null;// new TicTacToeStrategy();// 
-    
-    @Override
-    public void setView(InterfaceView view) {
-        if ( view instanceof TicTacToeView ) {
-            this.view = view;
-            gameManager = ((TicTacToeView) view).getGameManager();
-        } else 
-            System.err.println("Error: TicTacToeControl cannot accept this type of InterfaceView");
-    }
-
-    @Override 
-    public InterfaceView getView() { return view; }
-
-    private Game getGame() { return gameManager.getGame(); }
-
-    @Override 
-    public void setStrategy( int player, int strategy ) {
-    	InterfaceStrategy playerStrategy = strategy==0 ? null : new TicTacToeStrategy();
-    	if (player==1) {
-    		if (playerStrategy != null) {
-    			xStrategy = playerStrategy;
-    		}
-    	} else {
-    		if (playerStrategy != null) {
-    			oStrategy = playerStrategy;
-    		}
-    	}
-        onMove(); // Check if anything needs to be done via a strategy
-    }
-    
-    @Override 
-    public int getStrategy( int player ) {
-        if (player==1) return xStrategy==null ? 0 : 1;
-        else           return oStrategy==null ? 0 : 1;
-    }
-
-    @Override
-    public void onMove() { // Control is notified of a player (real or automated) move
-        InterfacePosition position = computePosition();
-        long startTime = System.nanoTime(); // Start the total timing
-        if (getGame().getCurrentPlayer() == Square.State.CROSS) {
-            if (xStrategy != null) {
-                position.setPlayer(1);
-                InterfaceSearchInfo context = new TicTacToeSearchInfo();
-                xStrategy.getBestMove(position, context);
-                int iR = context.getBestMoveSoFar().iR();
-                int iC = context.getBestMoveSoFar().iC();
-                
-                getGame().getBoard().getSquare(iC,iR).pressed();
-            }
-        }
-        if (getGame().getCurrentPlayer() == Square.State.NOUGHT) {
-            if (oStrategy != null) {
-                position.setPlayer(2);
-                InterfaceSearchInfo context = new TicTacToeSearchInfo();
-                oStrategy.getBestMove(position, context);
-                int iR = context.getBestMoveSoFar().iR();
-                int iC = context.getBestMoveSoFar().iC();
-                
-                getGame().getBoard().getSquare(iC,iR).pressed();
-            }
-        }
-        long endTime  = System.nanoTime(); // Finish the total timing
-        System.out.println("This move computation took:   " + ((double)(endTime - startTime)/1000000.0) + " milliseconds");
-    }
-
-    @Override
-    public void onMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // Specific notification of a move event (would invoke onMove())
-        System.err.println("Warning: onMove(int,int,int,int,int) is not supported by TicTacToeControl");
-        onMove();
-    }
-
-    @Override
-    public void resetGame() {
-        System.err.println("Warning: resetGame() is not supported by TicTacToeControl");
-        onMove();
-    }
-
-    private InterfacePosition computePosition() {
-        // Compute position
-        InterfacePosition position = new TicTacToePosition();
-        for (    int iR=0; iR<3; iR++) {
-            for (int iC=0; iC<3; iC++) {
-                Square.State state = getGame().getBoard().getSquare(iC, iR).getState();
-                // Set color: 0 if empty, 1 if x(cross), 2 if o(nought)
-                int color = (state == Square.State.EMPTY) ? 0 : (state == Square.State.CROSS) ? 1 : 2;
-                InterfaceIterator iter = new TicTacToeIterator(); iter.set(iC, iR);
-                position.setColor( iter, color);
-            }
-        }
-        return position;
-    }
-
-    @Override
-    public boolean isBlockManualMove() {
-        System.err.println("Error: TicTacToeControl::isBlockManualMove is not implemented!!!");
-        return false;
-    }
-}
+package c_minimax;
+
+import javafx.application.Platform;
+
+//author: Gary Kalmanovich; rights reserved
+
+public class TicTacToeControl implements InterfaceControl{
+    // This is the controller class. 
+    // In general this class would also be a model class.
+    //   However, I used code from someone else that keeps a different architecture
+    // Its responsibilities would be:
+    //   - to make sure that the rules of the game are followed
+    //   - to check if there is a winner in a particular position
+    //   - to notify Strategy if Strategy is playing
+    //   - this class can keep current state of the game
+    // As is, most of the relevant responsibility is with the GameManager and Game classes
+    // These are available to this class through composition
+    
+    private InterfaceView     view;
+    private GameManager       gameManager;
+    private InterfaceStrategy xStrategy = null;// new TicTacToeStrategy();// 
+    private InterfaceStrategy oStrategy = null;// new TicTacToeStrategy();// 
+    private int               xStrategyChoice = 0; // Index into StrategyChoice's choices (0 is manual)
+    private int               oStrategyChoice = 0;
+    private static final int  MAX_SEARCH_TIME = 2000; // ms per move, on boards that cannot be searched to the end
+    private ThreadStrategy    searchThread    = null; // The strategy search in flight, if any (only used on the FX thread)
+    
+    @Override
+    public void setView(InterfaceView view) {
+        if ( view instanceof TicTacToeView ) {
+            this.view = view;
+            gameManager = ((TicTacToeView) view).getGameManager();
+        } else 
+            System.err.println("Error: TicTacToeControl cannot accept this type of InterfaceView");
+    }
+
+    @Override 
+    public InterfaceView getView() { return view; }
+
+    private Game getGame() { return gameManager.getGame(); }
+
+    @Override 
+    public void setStrategy( int player, int strategy ) {
+    	InterfaceStrategy playerStrategy = newStrategy(strategy); // null for manual
+    	if (player==1) {
+    		xStrategy       = playerStrategy;
+    		xStrategyChoice = strategy;
+    	} else {
+    		oStrategy       = playerStrategy;
+    		oStrategyChoice = strategy;
+    	}
+        onMove(); // Cancel the search of the old strategy, and check if anything needs to be done via a strategy
+    }
+
+    private InterfaceStrategy newStrategy( int strategy ) {
+        switch (strategy) {
+        case 1:  return isClassicBoard() ? new TicTacToeStrategy()  // StrtgyA: minimax (only on 3x3, 3 in a row)
+                                         : new TicTacToeAlphaBetaStrategy();
+        case 2:  return new TicTacToeAlphaBetaStrategy();           // StrtgyB: alpha-beta
+        case 3:  return new TicTacToeParallelStrategy();            // StrtgyC: parallel alpha-beta
+        case 4:  return new TicTacToeTablebaseStrategy();           // StrtgyD: tablebase (falls back to alpha-beta off 3x3)
+        case 5:  return new TicTacToeMCTSStrategy();                // StrtgyE: Monte Carlo Tree Search
+        default: return null;                                       // Manual
+        }
+    }
+
+    private InterfaceSearchInfo newContext() {
+        InterfaceSearchInfo context = new TicTacToeSearchInfo();
+        if (!isClassicBoard()) context.setMaxSearchTimeForThisPos(MAX_SEARCH_TIME);
+        return context;
+    }
+
+    private boolean isClassicBoard() {
+        TicTacToeView ticTacToeView = (TicTacToeView) view;
+        return ticTacToeView.nC() == 3 && ticTacToeView.nR() == 3 && ticTacToeView.nK() == 3;
+    }
+    
+    @Override 
+    public int getStrategy( int player ) {
+        if (player==1) return xStrategyChoice;
+        else           return oStrategyChoice;
+    }
+
+    @Override
+    public void onMove() { // Control is notified of a player (real or automated) move
+        cancelSearch(); // The position it was searching has changed
+        if (getGame().isGameOver()) return;
+        int               player;
+        InterfaceStrategy strategy;
+        if      (getGame().getCurrentPlayer() == Square.State.CROSS ) { player = 1; strategy = xStrategy; }
+        else if (getGame().getCurrentPlayer() == Square.State.NOUGHT) { player = 2; strategy = oStrategy; }
+        else return;
+        if (strategy == null) return; // Manual
+
+        // The strategy runs on a background thread, so that the UI is not frozen while it searches.
+        //   Its move is then played on the JavaFX application thread, unless the search was cancelled meanwhile.
+        InterfacePosition position = computePosition();
+        position.setPlayer(player);
+        final Game                game      = getGame();
+        final InterfaceSearchInfo context   = newContext();
+        final long                startTime = System.nanoTime(); // Start the total timing
+        final ThreadStrategy      thread    = new ThreadStrategy(strategy, position, context);
+        thread.setDaemon(true); // Do not keep the application alive on exit
+        thread.addListener(new ThreadCompleteListener() {
+            @Override public void notifyOfThreadComplete(Thread completed) {
+                Platform.runLater(new Runnable() {
+                    @Override public void run() { onSearchComplete(thread, game, context, startTime); }
+                });
+            }
+        });
+        searchThread = thread;
+        thread.start();
+    }
+
+    private void onSearchComplete(ThreadStrategy thread, Game game, InterfaceSearchInfo context, long startTime) {
+        if (thread != searchThread || game != getGame()) return; // Cancelled (or the game was replaced)
+        searchThread = null;
+        long endTime  = System.nanoTime(); // Finish the total timing
+        System.out.println("This move computation took:   " + ((double)(endTime - startTime)/1000000.0) + " milliseconds, "
+                           + ((TicTacToeSearchInfo)context).getNodeCount() + " nodes; " + ((TicTacToeSearchInfo)context).getMetrics());
+        InterfaceIterator bestMove = context.getBestMoveSoFar();
+        if (bestMove == null) {
+            System.err.println("Error: TicTacToeControl: the strategy did not find a move");
+            return;
+        }
+        game.getBoard().getSquare(bestMove.iC(),bestMove.iR()).pressed();
+    }
+
+    private void cancelSearch() {
+        if (searchThread != null) {
+            ((TicTacToeSearchInfo) searchThread.getContext()).cancel();
+            searchThread = null;
+        }
+    }
+
+    @Override
+    public void onMove( int i0C, int i0R, int i1C, int i1R, int iPlayer ) { // Specific notification of a move event (would invoke onMove())
+        System.err.println("Warning: onMove(int,int,int,int,int) is not supported by TicTacToeControl");
+        onMove();
+    }
+
+    @Override
+    public void resetGame() {
+        cancelSearch(); // It was searching a position of the old game
+        onMove();
+    }
+
+    private InterfacePosition computePosition() {
+        // Compute position
+        int nC = view.nC();
+        int nR = view.nR();
+        InterfacePosition position = isClassicBoard() ? new TicTacToePosition()
+                                                      : new KInARowPosition(nC, nR, ((TicTacToeView) view).nK());
+        for (    int iR=0; iR<nR; iR++) {
+            for (int iC=0; iC<nC; iC++) {
+                Square.State state = getGame().getBoard().getSquare(iC, iR).getState();
+                // Set color: 0 if empty, 1 if x(cross), 2 if o(nought)
+                int color = (state == Square.State.EMPTY) ? 0 : (state == Square.State.CROSS) ? 1 : 2;
+                InterfaceIterator iter = new TicTacToeIterator(nC, nR); iter.set(iC, iR);
+                position.setColor( iter, color);
+            }
+        }
+        return position;
+    }
+
+    @Override
+    public boolean isBlockManualMove() {
+        System.err.println("Error: TicTacToeControl::isBlockManualMove is not implemented!!!");
+        return false;
+    }
+}
@@ -0,0 +1,205 @@
+package c_minimax;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+public class TicTacToeGameAnalysis {
+    // Re-analyzes archived games, headless: each game of a game-record file (see TicTacToeGameReader) is replayed
+    //   from its start position through TicTacToePosition.setColor, every position of it is scored by the engine, and each move is compared
+    //   with the engine's best move. A move is a blunder if it loses at least BLUNDER_MARGIN of the score
+    //   (on a solved board: it turns a win into a draw or a loss, or a draw into a loss).
+    // Runs in constant memory over files of any size: games are read as a stream, BATCH_GAMES at a time;
+    //   the positions of a batch are scored in one call to TicTacToeBatchEvaluator (over all cores, with one warm table),
+    //   and the batch's results are written before the next batch is read.
+    //
+    // Usage: java c_minimax.TicTacToeGameAnalysis file [--format=text|binary] [--out=file] [--threads=n] [--depth=n]
+    //   The format is text for a file named *.txt, binary otherwise. Results go to standard output unless --out is given.
+    //   --depth limits the search (0, the default, solves each position).
+    // One tab-separated line per game: number (from 1), moves (after the start position, as x/o/. per square and ":",
+    //   if it is not empty), result (x, o, draw, unfinished, or illegal if a move or the start position was not legal),
+    //   and blunders as ply:move>best (plies from 1), "-" if none. A summary follows, as "#" lines.
+    // A result recorded in the file that is not the one replayed is reported.
+
+    static final int   BATCH_GAMES    = 1024;
+    static final float BLUNDER_MARGIN = 0.5f;
+
+    private static final int MAX_MOVES = TicTacToeGameReader.MAX_MOVES;
+    private static final int ILLEGAL   = -2; // Result of a game with an illegal move
+
+    private String                     inputFile = null;
+    private TicTacToeGameReader.Format format    = null; // By the file name, if not given
+    private String                     outFile   = null;
+    private int                        nThreads  = Runtime.getRuntime().availableProcessors();
+    private int                        maxDepth  = 0;
+
+    // One batch of games: the moves of each, then the positions (before each move, and the last one) to score
+    private final int[]   moves      = new int[BATCH_GAMES * MAX_MOVES];
+    private final int[]   nMoves     = new int[BATCH_GAMES];
+    private final int[]   starts     = new int[BATCH_GAMES]; // Packed start positions (see TicTacToeGameRecord)
+    private final int[]   firstIndex = new int[BATCH_GAMES]; // Of the game's first position in positions
+    private final int[]   results    = new int[BATCH_GAMES]; // isWinner() of the last position, ILLEGAL if not legal
+    private final long[]  positions  = new long [BATCH_GAMES * (MAX_MOVES+1)];
+    private final float[] scores     = new float[BATCH_GAMES * (MAX_MOVES+1)];
+    private final int[]   bestMoves  = new int  [BATCH_GAMES * (MAX_MOVES+1)];
+    private final TicTacToePosition position = new TicTacToePosition();
+    private final InterfaceIterator iPos     = new TicTacToeIterator();
+
+    private long nGames = 0, nIllegal = 0, nPositions = 0, nBlunders = 0;
+
+    public static void main(String[] args) throws IOException {
+        TicTacToeGameAnalysis analysis = new TicTacToeGameAnalysis();
+        for (String arg : args) {
+            if (!analysis.parse(arg)) {
+                System.err.println("Error(TicTacToeGameAnalysis::main): unknown argument ("+arg+")");
+                System.exit(2);
+            }
+        }
+        if (analysis.inputFile == null) {
+            System.err.println("Error(TicTacToeGameAnalysis::main): no game-record file given");
+            System.exit(2);
+        }
+        Writer out = analysis.outFile == null ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                                              : Files.newBufferedWriter(Paths.get(analysis.outFile), StandardCharsets.UTF_8);
+        try {
+            analysis.run(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    private boolean parse(String arg) {
+        if (!arg.startsWith("--")) {
+            if (inputFile != null) return false;
+            inputFile = arg;
+            return true;
+        }
+        int equals = arg.indexOf('=');
+        if (equals < 0) return false;
+        String name  = arg.substring(2, equals);
+        String value = arg.substring(equals + 1);
+        if      (name.equals("format") ) format   = TicTacToeGameReader.Format.valueOf(value.toUpperCase());
+        else if (name.equals("out")    ) outFile  = value;
+        else if (name.equals("threads")) nThreads = Integer.parseInt(value);
+        else if (name.equals("depth")  ) maxDepth = Integer.parseInt(value);
+        else return false;
+        return true;
+    }
+
+    void run(Writer out) throws IOException {
+        ForkJoinPool            pool      = new ForkJoinPool(nThreads);
+        TicTacToeBatchEvaluator evaluator = new TicTacToeBatchEvaluator(pool, 3, 3, 3,
+                TicTacToeAlphaBetaStrategy.sharedTable(position));
+        evaluator.setMaxDepth(maxDepth);
+        long startTime = System.nanoTime();
+        TicTacToeGameReader reader = null;
+        try {
+            reader = format == null ? new TicTacToeGameReader(Paths.get(inputFile))
+                                    : new TicTacToeGameReader(Paths.get(inputFile), format);
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                int nBatch = 0, nBatchPositions = 0;
+                for (; nBatch < BATCH_GAMES; nBatch++) {
+                    int n = reader.nextGame(moves, nBatch * MAX_MOVES);
+                    if (n < 0) break;
+                    nMoves[nBatch]     = n;
+                    starts[nBatch]     = reader.getStartPosition();
+                    firstIndex[nBatch] = nBatchPositions;
+                    nBatchPositions   += replay(nBatch, nBatchPositions);
+                    checkResult(nBatch, reader.getResult());
+                }
+                if (nBatch == 0) break;
+                evaluator.evaluate(positions, 0, nBatchPositions, scores, bestMoves);
+                for (int game = 0; game < nBatch; game++) {
+                    line.setLength(0);
+                    writeGame(game, line);
+                    out.append(line);
+                }
+                out.flush(); // Results of every batch are out before the next one is read
+                nPositions += nBatchPositions;
+            }
+        } finally {
+            if (reader != null) reader.close();
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        out.append("# games: "+nGames+", illegal: "+nIllegal+", positions: "+nPositions+", blunders: "+nBlunders+"\n");
+        out.append("# "+seconds+" s, "+(nGames/seconds)+" games/sec, "+(nPositions/seconds)+" positions/sec\n");
+        for (String report : evaluator.throughputReport().split("\n")) out.append("# ").append(report).append("\n");
+        out.flush();
+    }
+
+    // Replays game (of the batch) from its start position into positions, from index; returns the number of positions.
+    //   A game with an illegal move keeps only the positions before it.
+    private int replay(int game, int index) {
+        if (!TicTacToeGameRecord.unpackPosition(starts[game], position, iPos)) {
+            results[game]    = ILLEGAL;
+            positions[index] = position.getRawPosition();
+            return 1;
+        }
+        positions[index] = position.getRawPosition();
+        int nPositions = 1;
+        results[game]  = -1;
+        for (int ply = 0; ply < nMoves[game]; ply++) {
+            int square = moves[game*MAX_MOVES + ply];
+            if (square < 0 || square >= 9 || position.isWinner() != -1) {
+                results[game] = ILLEGAL;
+                return nPositions;
+            }
+            iPos.set(square%3, square/3);
+            if (position.getColor(iPos) != 0) {
+                results[game] = ILLEGAL;
+                return nPositions;
+            }
+            int player = position.getPlayer();
+            position.setColor(iPos, player);
+            position.setPlayer(3-player);
+            positions[index + nPositions++] = position.getRawPosition();
+        }
+        results[game] = position.isWinner();
+        return nPositions;
+    }
+
+    private void checkResult(int game, int recorded) {
+        if ( recorded == TicTacToeGameRecord.RESULT_UNFINISHED || results[game] == ILLEGAL
+          || recorded == TicTacToeGameRecord.result(results[game]) ) return;
+        System.err.println("Error(TicTacToeGameAnalysis::checkResult): game "+(nGames+game+1)+" is recorded with result "
+                           +recorded+", but replays to "+TicTacToeGameRecord.result(results[game]));
+    }
+
+    private void writeGame(int game, StringBuilder line) {
+        nGames++;
+        line.append(nGames).append('\t');
+        if (starts[game] != 0) {
+            for (int square = 0, packed = starts[game]; square < 9; square++, packed /= 3) line.append(".xo".charAt(packed % 3));
+            line.append(':');
+        }
+        for (int ply = 0; ply < nMoves[game]; ply++) line.append(moves[game*MAX_MOVES + ply]);
+        int result = results[game];
+        line.append('\t').append(result == ILLEGAL ? "illegal" : result == -1 ? "unfinished"
+                                 : result == 0 ? "draw" : result == 1 ? "x" : "o").append('\t');
+        if (result == ILLEGAL) {
+            nIllegal++;
+            line.append("-\n");
+            return;
+        }
+        int     first = firstIndex[game];
+        boolean any   = false;
+        for (int ply = 0; ply < nMoves[game]; ply++) {
+            float best  = scores[first + ply];
+            float after = -scores[first + ply + 1]; // For the player who moved
+            if (best - after < BLUNDER_MARGIN) continue;
+            if (any) line.append(',');
+            line.append(ply+1).append(':').append(moves[game*MAX_MOVES + ply]).append('>').append(bestMoves[first + ply]);
+            any = true;
+            nBlunders++;
+        }
+        line.append(any ? "\n" : "-\n");
+    }
+}
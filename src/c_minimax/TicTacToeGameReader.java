@@ -0,0 +1,110 @@
+package c_minimax;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TicTacToeGameReader implements Closeable {
+    // Streams the games of a game-record file, one at a time, in constant memory, whatever the file size.
+    // A move is a square, nC*iR+iC (0-8 on 3x3). Two formats:
+    //   TEXT:   one game per line, its moves as digits 0-8, optionally separated by spaces or commas
+    //           ("4 0 8 2"); every game starts from the empty board. Blank lines are skipped, and "#" starts
+    //           a comment up to the end of the line. The file is read through a FileChannel into one fixed buffer
+    //           of BUFFER_SIZE bytes, refilled as it is used up.
+    //   BINARY: the game-record format of TicTacToeGameRecord, read from a memory mapping by TicTacToeGameRecordReader.
+    //           Games have their own start position and result.
+    // A text line that is not a game (a character other than a digit or a separator, or more than MAX_MOVES
+    //   moves) is reported and skipped; nextGame() goes on with the next line.
+
+    enum Format { TEXT, BINARY }
+
+    static final int BUFFER_SIZE = 1 << 16;
+    static final int MAX_MOVES   = TicTacToeGameRecord.MAX_MOVES;
+
+    private final Format                    format;
+    private final FileChannel               channel; // TEXT
+    private final ByteBuffer                buffer;
+    private final TicTacToeGameRecordReader records; // BINARY
+    private boolean endOfFile = false;
+    private long    line      = 0; // Of the text read so far, for error messages
+
+    TicTacToeGameReader(Path file) throws IOException {
+        this(file, file.toString().endsWith(".txt") ? Format.TEXT : Format.BINARY);
+    }
+    TicTacToeGameReader(Path file, Format format) throws IOException {
+        this.format = format;
+        if (format == Format.TEXT) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer  = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.limit(0); // Empty until the first refill
+            records = null;
+        } else {
+            channel = null;
+            buffer  = null;
+            records = new TicTacToeGameRecordReader(file);
+        }
+    }
+
+    // Reads the next game into moves[offset..] (room for MAX_MOVES); returns its number of moves, or -1 at end of file
+    int nextGame(int[] moves, int offset) throws IOException {
+        return format == Format.TEXT ? nextTextGame(moves, offset) : records.nextGame(moves, offset);
+    }
+
+    // Of the last game read: its start position (packed, see TicTacToeGameRecord), and its recorded result
+    //   (RESULT_UNFINISHED for text, which records none)
+    int getStartPosition() { return format == Format.TEXT ? 0 : records.getStartPosition(); }
+    int getResult()        { return format == Format.TEXT ? TicTacToeGameRecord.RESULT_UNFINISHED : records.getResult(); }
+
+    private int nextTextGame(int[] moves, int offset) throws IOException {
+        while (true) {
+            int c = nextByte();
+            if (c < 0) return -1;
+            line++;
+            int     nMoves  = 0;
+            boolean invalid = false;
+            for (; c >= 0 && c != '\n'; c = nextByte()) {
+                if (c == '#') { // Comment: skip to the end of the line
+                    while (c >= 0 && c != '\n') c = nextByte();
+                    break;
+                }
+                if (c >= '0' && c <= '8') {
+                    if (nMoves < MAX_MOVES) moves[offset + nMoves++] = c - '0';
+                    else                    invalid = true;
+                }
+                else if (c != ' ' && c != ',' && c != '\t' && c != '\r') invalid = true;
+            }
+            if (invalid) {
+                System.err.println("Error(TicTacToeGameReader::nextGame): line "+line+" is not a game");
+                continue;
+            }
+            if (nMoves > 0) return nMoves;
+            if (c < 0) return -1;
+        }
+    }
+
+    // The next byte of the file (0-255), or -1 at end of file
+    private int nextByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (endOfFile) return -1;
+            buffer.clear();
+            while (buffer.hasRemaining()) { // Fill the whole buffer, so that reads are few and large
+                if (channel.read(buffer) < 0) {
+                    endOfFile = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            if (!buffer.hasRemaining()) return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+        if (records != null) records.close();
+    }
+}
@@ -0,0 +1,88 @@
+package c_minimax;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class TicTacToeGameRecord {
+    // The binary game-record format (3x3, 3 in a row), written by TicTacToeGameRecordWriter and read by
+    //   TicTacToeGameRecordReader. All multi-byte numbers are big-endian.
+    //   Header: MAGIC ("TTTG"), then one byte, the VERSION of the format.
+    //   Then one record per game, until the end of the file:
+    //     start position: 2 bytes, the colors of squares 0-8 (square nC*iR+iC; 0 empty, 1 cross, 2 nought)
+    //                     as the digits of a base-3 number, square 0 the lowest. The player to move is crosses
+    //                     if there are as many crosses as noughts, noughts otherwise.
+    //     moves:          a varint (the number of moves), then each move (its square) as a varint.
+    //     result:         1 byte, RESULT_UNFINISHED, RESULT_CROSSES, RESULT_NOUGHTS or RESULT_DRAW.
+    //   A varint is 7 bits per byte, lowest first, with the high bit set on every byte but the last.
+    // A game from the empty board is 4 + nMoves bytes (at most 13).
+    // Readers reject a file whose version they do not know: a new version is needed for any change in the records.
+
+    static final int  MAGIC   = 0x54545447; // "TTTG"
+    static final byte VERSION = 1;
+    static final int  HEADER_SIZE     = 5;
+    static final int  MAX_MOVES       = 9;
+    static final int  MAX_RECORD_SIZE = 2 + 5 + 5*MAX_MOVES + 1; // Whatever the varints (of moves up to 2^31)
+
+    static final int RESULT_UNFINISHED = 0;
+    static final int RESULT_CROSSES    = 1;
+    static final int RESULT_NOUGHTS    = 2;
+    static final int RESULT_DRAW       = 3;
+
+    private static final int N_PACKED = 19683; // 3^9
+
+    private TicTacToeGameRecord() {  }
+
+    // The result byte of a game whose last position has isWinner() winner
+    static int result(int winner) {
+        return winner == -1 ? RESULT_UNFINISHED : winner == 0 ? RESULT_DRAW : winner;
+    }
+
+    // The 2-byte form of position
+    static int packPosition(InterfacePosition position) {
+        InterfaceIterator iPos   = new TicTacToeIterator();
+        int               packed = 0;
+        for (int square = 8; square >= 0; square--) {
+            iPos.set(square%3, square/3);
+            packed = 3*packed + position.getColor(iPos);
+        }
+        return packed;
+    }
+
+    // position (reset, then set) becomes the position packed; returns false (leaving it empty) if packed is not one
+    static boolean unpackPosition(int packed, InterfacePosition position, InterfaceIterator iPos) {
+        position.reset();
+        if (packed < 0 || packed >= N_PACKED) return false;
+        int nCross = 0, nNought = 0;
+        for (int square = 0; square < 9; square++, packed /= 3) {
+            int color = packed % 3;
+            if (color == 0) continue;
+            iPos.set(square%3, square/3);
+            position.setColor(iPos, color);
+            if (color == 1) nCross++; else nNought++;
+        }
+        if (nCross != nNought && nCross != nNought+1) {
+            position.reset();
+            return false;
+        }
+        position.setPlayer(nCross == nNought ? 1 : 2);
+        return true;
+    }
+
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value; // High bit clear: the last byte
+        }
+        throw new IOException("varint longer than 5 bytes");
+    }
+}
@@ -0,0 +1,73 @@
+package c_minimax;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TicTacToeGameRecordReader implements Closeable {
+    // Reads a file in the game-record format (see TicTacToeGameRecord), game by game, without copying it:
+    //   the file is memory-mapped (read-only) and records are decoded straight from the mapping, so the only
+    //   reads are the page faults of the operating system, and the heap holds nothing of the file.
+    // Files larger than a mapping can be (2 GB) are mapped in windows of WINDOW_SIZE bytes; the next window is mapped
+    //   from the first record that might not fit in the current one, so no record is ever split.
+
+    static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long        fileSize;
+    private long              windowStart; // Offset in the file of the window mapped
+    private MappedByteBuffer  window;
+    private int               startPosition, result; // Of the last game read
+
+    TicTacToeGameRecordReader(Path file) throws IOException {
+        channel  = FileChannel.open(file, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+        if ( fileSize < TicTacToeGameRecord.HEADER_SIZE || window.getInt() != TicTacToeGameRecord.MAGIC ) {
+            channel.close();
+            throw new IOException(file+" is not a game-record file");
+        }
+        byte version = window.get();
+        if (version != TicTacToeGameRecord.VERSION) {
+            channel.close();
+            throw new IOException(file+" is in version "+version+" of the game-record format, not "+TicTacToeGameRecord.VERSION);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window      = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    // Reads the next game's moves into moves[offset..] (room for MAX_MOVES); returns their number, or -1 at end of file.
+    //   Its start position and result are then those of getStartPosition() and getResult().
+    int nextGame(int[] moves, int offset) throws IOException {
+        if ( window.remaining() < TicTacToeGameRecord.MAX_RECORD_SIZE
+          && windowStart + window.limit() < fileSize ) map(windowStart + window.position());
+        if (!window.hasRemaining()) return -1;
+        try {
+            startPosition = window.getShort() & 0xFFFF;
+            int nMoves    = TicTacToeGameRecord.getVarint(window);
+            if (nMoves < 0 || nMoves > TicTacToeGameRecord.MAX_MOVES) {
+                throw new IOException("game of "+nMoves+" moves at offset "+(windowStart + window.position()));
+            }
+            for (int i = 0; i < nMoves; i++) moves[offset+i] = TicTacToeGameRecord.getVarint(window);
+            result = window.get();
+            return nMoves;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("end of file inside a game");
+        }
+    }
+
+    int getStartPosition() { return startPosition; } // Packed, see TicTacToeGameRecord.unpackPosition()
+    int getResult()        { return result;        } // TicTacToeGameRecord.RESULT_...
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
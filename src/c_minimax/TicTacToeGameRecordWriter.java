@@ -0,0 +1,55 @@
+package c_minimax;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TicTacToeGameRecordWriter implements Closeable {
+    // Writes games in the game-record format (see TicTacToeGameRecord) to a new file (or over an existing one).
+    // Records are encoded into one direct buffer of BUFFER_SIZE bytes, written to the file whenever it is nearly full,
+    //   so that writes are few and large. write() is synchronized: worker threads (as in TicTacToeSelfPlay)
+    //   can share one writer, each game staying in one piece.
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer  buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long              nGames = 0;
+
+    TicTacToeGameRecordWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(TicTacToeGameRecord.MAGIC);
+        buffer.put(TicTacToeGameRecord.VERSION);
+    }
+
+    // Writes one game: its start position (packed), its moves moves[offset..offset+nMoves-1], and its result
+    synchronized void write(int startPosition, int[] moves, int offset, int nMoves, int result) throws IOException {
+        if (nMoves < 0 || nMoves > TicTacToeGameRecord.MAX_MOVES) {
+            throw new IllegalArgumentException("game of "+nMoves+" moves");
+        }
+        if (buffer.remaining() < TicTacToeGameRecord.MAX_RECORD_SIZE) flush();
+        buffer.putShort((short) startPosition);
+        TicTacToeGameRecord.putVarint(buffer, nMoves);
+        for (int i = 0; i < nMoves; i++) TicTacToeGameRecord.putVarint(buffer, moves[offset+i]);
+        buffer.put((byte) result);
+        nGames++;
+    }
+
+    synchronized long getGameCount() { return nGames; }
+
+    // Writes out the games buffered so far
+    synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
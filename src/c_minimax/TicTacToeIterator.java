@@ -1,22 +1,25 @@
-package c_minimax;
-
-//author: Gary Kalmanovich; rights reserved
-
-public class TicTacToeIterator implements InterfaceIterator {
-
-    private int   iterator  = 0;
-
-    TicTacToeIterator() {  } 
-    TicTacToeIterator(InterfaceIterator iter) { this.set(iter); } 
-    
-    @Override public int          iC() { return iterator%3; }
-    @Override public int          iR() { return iterator/3; }
-    @Override public int          nC() { return          3; }
-    @Override public int          nR() { return          3; }
-    @Override public void  increment() {        iterator++; }
-    @Override public void  resetBack() {      iterator = 0; }
-    @Override public void set( InterfaceIterator iter ) { iterator = ((TicTacToeIterator)iter).iterator; }
-    @Override public void set(int iC, int iR) { iterator = 3*iR+iC; }
-    @Override public boolean isInBounds() { return 0<=iterator && iterator<3*3; }
-
-}
+package c_minimax;
+
+//author: Gary Kalmanovich; rights reserved
+
+public class TicTacToeIterator implements InterfaceIterator {
+
+    private int   iterator  = 0;
+    private final int nC;
+    private final int nR;
+
+    TicTacToeIterator() { this(3,3); } 
+    TicTacToeIterator(int nC, int nR) { this.nC = nC; this.nR = nR; } 
+    TicTacToeIterator(InterfaceIterator iter) { this(iter.nC(),iter.nR()); this.set(iter); } 
+    
+    @Override public int          iC() { return iterator%nC; }
+    @Override public int          iR() { return iterator/nC; }
+    @Override public int          nC() { return          nC; }
+    @Override public int          nR() { return          nR; }
+    @Override public void  increment() {        iterator++; }
+    @Override public void  resetBack() {      iterator = 0; }
+    @Override public void set( InterfaceIterator iter ) { iterator = nC*iter.iR()+iter.iC(); }
+    @Override public void set(int iC, int iR) { iterator = nC*iR+iC; }
+    @Override public boolean isInBounds() { return 0<=iterator && iterator<nC*nR; }
+
+}
@@ -0,0 +1,318 @@
+package c_minimax;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TicTacToeMCTSStrategy implements InterfaceStrategy {
+    // Monte Carlo Tree Search: instead of searching every move to a depth, plays random games (playouts)
+    //   and grows a tree towards the moves that win most often. Scales to boards alpha-beta cannot solve (5x5 and up).
+    // Each playout:
+    //   selection   - from the root, descends to the child with the best UCT value:
+    //                 (points/visits) + EXPLORATION * sqrt(ln(parent visits) / visits), unvisited children first
+    //   expansion   - a leaf visited before gets a child per free square (up to MAX_NODES nodes in the tree)
+    //   simulation  - random moves to the end of the game, on two bitboards (as in KInARowPosition)
+    //   propagation - every node on the path adds 2 points for a win of the player who moved into it, 1 for a draw
+    // Playouts run in parallel on nThreads threads, all in the same tree: the caller's, and nThreads-1 tasks
+    //   of a ForkJoinPool shared by every instance with the same number of threads (so none is ever left behind).
+    //   A thread descending through a node counts VIRTUAL_LOSS lost visits on it until its playout is propagated,
+    //   so that the other threads spread out over other moves instead of all following the same path.
+    //   Node statistics are updated with atomic field updaters; expansion locks only the node being expanded.
+    // The tree is kept between moves: the next search starts from the node of its position if it is in the tree
+    //   (within two plies of the old root, i.e., after our move and the opponent's), otherwise from a new root.
+    // A search stops at the max time of the context (DEFAULT_TIME if none), at maxPlayouts (if set), or on cancel().
+    // The move played is the most visited child of the root; its score is the estimate of
+    //   (probability of winning) - (probability of losing), as for InterfacePosition.valuePosition().
+    // Works on any board of up to 64 squares (TicTacToePosition or KInARowPosition).
+
+    static final int    DEFAULT_TIME = 1000;      // ms per move when the context sets no max time
+    static final int    MAX_NODES    = 1 << 19;   // About 32 MB of tree; playouts go on without expanding past it
+    static final double EXPLORATION  = Math.sqrt(2);
+    static final int    VIRTUAL_LOSS = 3;
+
+    private static final Map<Integer,ForkJoinPool> sharedPools = new HashMap<Integer,ForkJoinPool>(); // By nThreads
+
+    private final ForkJoinPool pool;
+    private final int          nThreads;
+    private final long         maxPlayouts; // 0 for no limit
+    private volatile Node      tree = null; // Root of the last search, for reuse
+
+    TicTacToeMCTSStrategy() {
+        this(Runtime.getRuntime().availableProcessors(), 0);
+    }
+    TicTacToeMCTSStrategy(int nThreads, long maxPlayouts) {
+        this(getSharedPool(nThreads), nThreads, maxPlayouts);
+    }
+    private TicTacToeMCTSStrategy(ForkJoinPool pool, int nThreads, long maxPlayouts) {
+        this.pool        = pool;
+        this.nThreads    = nThreads;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    private static synchronized ForkJoinPool getSharedPool(int nThreads) { // null for one thread, which needs no pool
+        if (nThreads <= 1) return null;
+        ForkJoinPool pool = sharedPools.get(nThreads);
+        if (pool == null) {
+            pool = new ForkJoinPool(nThreads - 1); // The thread of the caller is a worker too
+            sharedPools.put(nThreads, pool);
+        }
+        return pool;
+    }
+
+    private static final class Node {
+        final long crosses, noughts;
+        final int  player; // To move
+        final int  move;   // Square played to reach this node, -1 for a root
+        final int  result; // isWinner() of the position: -1 while the game goes on
+        volatile int    visits;     // Playouts through this node, plus the virtual losses of those in flight
+        volatile int    points;     // 2 per win and 1 per draw, for the player who played move
+        volatile Node[] children;   // null until expanded
+
+        Node(long crosses, long noughts, int player, int move, int result) {
+            this.crosses = crosses;
+            this.noughts = noughts;
+            this.player  = player;
+            this.move    = move;
+            this.result  = result;
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Node> VISITS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+    private static final AtomicIntegerFieldUpdater<Node> POINTS = AtomicIntegerFieldUpdater.newUpdater(Node.class, "points");
+
+    // State of one search, shared by its workers
+    private KInARowPosition.Geometry geometry;
+    private Node                root;
+    private TicTacToeSearchInfo info;
+    private long                deadline;
+    private final AtomicInteger nNodes    = new AtomicInteger();
+    private final LongAdder     nPlayouts = new LongAdder();
+    private final AtomicInteger maxPly    = new AtomicInteger();
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        long startTime = System.nanoTime();
+        // Each search runs on its own instance (sharing pool and tree), as in TicTacToeAlphaBetaStrategy
+        TicTacToeMCTSStrategy search = new TicTacToeMCTSStrategy(pool, nThreads, maxPlayouts);
+        tree = search.search(position, (TicTacToeSearchInfo) context, tree);
+        long nanos = System.nanoTime() - startTime; // Before of(), which registers with JMX on first use
+        SearchStatistics.of("mcts").record((TicTacToeSearchInfo) context, nanos);
+    }
+
+    // Runs playouts from position until a limit is reached; returns the root, for reuse by the next search
+    private Node search(InterfacePosition position, TicTacToeSearchInfo context, Node oldTree) {
+        info     = context;
+        geometry = KInARowPosition.Geometry.of(position.nC(), position.nR(), TicTacToeAlphaBetaStrategy.nK(position));
+        long crosses = 0, noughts = 0;
+        for (int square = 0; square < geometry.nSquares; square++) {
+            InterfaceIterator iPos = new TicTacToeIterator(geometry.nC, geometry.nR); iPos.set(square%geometry.nC, square/geometry.nC);
+            int color = position.getColor(iPos);
+            if      (color == 1) crosses |= 1L << square;
+            else if (color == 2) noughts |= 1L << square;
+        }
+        root = find(oldTree, crosses, noughts, position.getPlayer(), 2);
+        if (root == null) {
+            root = new Node(crosses, noughts, position.getPlayer(), -1, position.isWinner());
+            nNodes.set(1);
+        } else {
+            nNodes.set(count(root));
+        }
+        if (root.result != -1) return root; // The game is over: no move
+        expand(root, false); // Even if the tree is full, so that there are moves to choose from
+
+        int  maxTime   = info.getMaxSearchTimeForThisPos() > 0 ? info.getMaxSearchTimeForThisPos() : DEFAULT_TIME;
+        long startTime = System.nanoTime();
+        deadline = startTime + maxTime * 1000000L;
+        List<ForkJoinTask<?>> workers = new ArrayList<ForkJoinTask<?>>();
+        for (int t = 1; t < nThreads; t++) workers.add(pool.submit(new Worker(startTime + t)));
+        new Worker(startTime).run(); // This thread is a worker too
+        for (ForkJoinTask<?> worker : workers) worker.join();
+
+        long playouts = nPlayouts.sum();
+        info.addNodeCount(playouts);
+        info.getMetrics().iterationComplete(maxPly.get(), playouts, System.nanoTime() - startTime);
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) best = child;
+        }
+        float score;
+        if (best.visits > 0) {
+            score = (float) best.points / best.visits - 1;
+        } else { // No playout (cancelled, or out of time or playouts before the first): a win now, else the best prior
+            best = unvisitedBest(root);
+            score = best.result == root.player ? 1 : 0;
+        }
+        InterfaceIterator iPos = new TicTacToeIterator(geometry.nC, geometry.nR); iPos.set(best.move%geometry.nC, best.move/geometry.nC);
+        info.setBestMoveSoFar(iPos, score);
+        return root;
+    }
+
+    // The child of node that wins at once, if any; otherwise the one on the most winning lines (PRIORS in TicTacToeMoveOrdering)
+    private Node unvisitedBest(Node node) {
+        Node best = null;
+        for (Node child : node.children) {
+            if (child.result == node.player) return child;
+            if (best == null || geometry.linesThrough[child.move].length > geometry.linesThrough[best.move].length) best = child;
+        }
+        return best;
+    }
+
+    // The node of (crosses,noughts,player) within plies below node, or null
+    private static Node find(Node node, long crosses, long noughts, int player, int plies) {
+        if (node == null) return null;
+        if (node.crosses == crosses && node.noughts == noughts && node.player == player) return node;
+        Node[] children = node.children;
+        if (plies == 0 || children == null) return null;
+        for (Node child : children) {
+            Node found = find(child, crosses, noughts, player, plies - 1);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static int count(Node node) {
+        int    n        = 1;
+        Node[] children = node.children;
+        if (children != null) {
+            for (Node child : children) n += count(child);
+        }
+        return n;
+    }
+
+    private class Worker implements Runnable {
+        // Runs playouts until the search is over; its buffers are reused by every playout
+        private final Node[] path    = new Node[geometry.nSquares + 1];
+        private final int[]  squares = new int[geometry.nSquares]; // Free squares during a simulation
+        private long         random;                               // State of an xorshift generator
+
+        Worker(long seed) { random = seed | 1; }
+
+        @Override
+        public void run() {
+            for (long n = 0; ; n++) {
+                if (info.isCancelled()) return;
+                if ((n & 63) == 0 && System.nanoTime() > deadline) return;
+                if (maxPlayouts > 0 && nPlayouts.sum() >= maxPlayouts) return;
+                playout();
+                nPlayouts.increment();
+            }
+        }
+
+        private void playout() {
+            // Selection (and expansion of the leaf, if visited before)
+            Node node  = root;
+            int  depth = 0;
+            path[depth++] = node;
+            VISITS.addAndGet(node, VIRTUAL_LOSS);
+            while (node.result == -1) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node.visits <= VIRTUAL_LOSS) break; // First visit: simulate from here
+                    children = expand(node, true);
+                    if (children == null) break; // The tree is full
+                }
+                node = select(node, children);
+                path[depth++] = node;
+                VISITS.addAndGet(node, VIRTUAL_LOSS);
+            }
+            for (int max; (max = maxPly.get()) < depth - 1 && !maxPly.compareAndSet(max, depth - 1); ) { }
+
+            // Simulation
+            int winner = node.result != -1 ? node.result : simulate(node);
+
+            // Propagation (and removal of the virtual losses)
+            for (int i = 0; i < depth; i++) {
+                Node visited = path[i];
+                int  mover   = 3 - visited.player;
+                VISITS.addAndGet(visited, 1 - VIRTUAL_LOSS);
+                POINTS.addAndGet(visited, winner == mover ? 2 : winner == 0 ? 1 : 0);
+            }
+        }
+
+        private Node select(Node parent, Node[] children) {
+            double logVisits = Math.log(Math.max(parent.visits, 1));
+            Node   best      = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int visits = child.visits;
+                if (visits == 0) return child;
+                double value = child.points / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    best      = child;
+                    bestValue = value;
+                }
+            }
+            return best;
+        }
+
+        // Random moves from node to the end of the game; returns the winner (0 for a draw)
+        private int simulate(Node node) {
+            long crosses = node.crosses, noughts = node.noughts;
+            long free    = ~(crosses | noughts);
+            int  nFree   = 0;
+            for (int square = 0; square < geometry.nSquares; square++) {
+                if ((free >>> square & 1) != 0) squares[nFree++] = square;
+            }
+            int player = node.player;
+            while (nFree > 0) {
+                random ^= random << 13; random ^= random >>> 7; random ^= random << 17; // xorshift64
+                int i      = (int) ((random >>> 33) % nFree);
+                int square = squares[i];
+                squares[i] = squares[--nFree];
+                long bits = player == 1 ? (crosses |= 1L << square) : (noughts |= 1L << square);
+                for (long line : geometry.linesThrough[square]) {
+                    if ((bits & line) == line) return player;
+                }
+                player = 3 - player;
+            }
+            return 0;
+        }
+    }
+
+    // Adds a child per free square to node; returns them, or null if bounded and the tree is full
+    private Node[] expand(Node node, boolean bounded) {
+        synchronized (node) {
+            if (node.children != null) return node.children; // Expanded by another thread meanwhile
+            long free    = ~(node.crosses | node.noughts) & (geometry.nSquares == 64 ? -1L : (1L << geometry.nSquares) - 1);
+            int  nFree   = Long.bitCount(free);
+            if (nNodes.addAndGet(nFree) > MAX_NODES && bounded) {
+                nNodes.addAndGet(-nFree);
+                return null;
+            }
+            Node[] children = new Node[nFree];
+            int    opponent = 3 - node.player;
+            for (int i = 0; i < nFree; i++) {
+                int  square  = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                long crosses = node.player == 1 ? node.crosses | 1L << square : node.crosses;
+                long noughts = node.player == 2 ? node.noughts | 1L << square : node.noughts;
+                long bits    = node.player == 1 ? crosses : noughts;
+                int  result  = nFree == 1 ? 0 : -1; // The last free square: a draw, unless it wins
+                for (long line : geometry.linesThrough[square]) {
+                    if ((bits & line) == line) { result = node.player; break; }
+                }
+                children[i] = new Node(crosses, noughts, opponent, square, result);
+            }
+            node.children = children;
+            return children;
+        }
+    }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package c_minimax;
+
+class TicTacToeMoveOrdering {
+    // Orders the moves of a position for alpha-beta, so that the cutoffs are found early.
+    // The free squares of a position are generated into the int buffer of its ply, best first, so that
+    //   ordering allocates nothing once set up. Each heuristic can be turned on or off (a bit of heuristics):
+    //   TT_MOVE - the best move saved in the transposition table (or of the previous iteration) goes first
+    //   PRIORS  - then squares by the number of winning lines through them (on 3x3: the center 4, the corners 3, the edges 2)
+    //   KILLERS - among squares of equal prior, the last two moves that caused a cutoff at the same ply (in a sibling position)
+    //   HISTORY - then by how often (weighted by depth^2) a move caused a cutoff for the player, anywhere
+    //   With NONE, moves are generated in row-major order (as TicTacToeIterator visits them).
+    // DEFAULT is the set that searched the fewest nodes in OrderingBenchmark (src/jmh), with valuePosition()
+    //   scoring the horizon (4x4 k4 solved: 5.08M nodes with NONE, 2.58M with TT_MOVE, 919k with TT_MOVE+PRIORS,
+    //   843k with ALL; 5x5 k4 to depth 6: 281k, 24.6k, 7.3k and 6.9k).
+    // An instance keeps killers and history, so it belongs to one search (one thread).
+
+    static final int NONE    = 0;
+    static final int TT_MOVE = 1;
+    static final int KILLERS = 2;
+    static final int HISTORY = 4;
+    static final int PRIORS  = 8;
+    static final int ALL     = TT_MOVE | KILLERS | HISTORY | PRIORS;
+    static final int DEFAULT = ALL;
+
+    // A move's score is, from the most significant bits down: TT move, prior, killer, history
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int PRIOR_SHIFT   = 22;      // A prior is at most 4*nK, so it fits below TT_MOVE_SCORE
+    private static final int KILLER_SHIFT  = 20;      // The first killer scores 3, the second 2
+    private static final int MAX_HISTORY   = 1 << KILLER_SHIFT; // History is halved when an entry reaches it
+
+    private final int      heuristics;
+    private final int      nSquares;
+    private final int[]    priors;  // priors[square]: winning lines through square
+    private final int[][]  moves;   // moves[ply]: the moves generated at ply, best first
+    private final int[]    scores;  // Of the moves being ordered
+    private final int[][]  killers; // killers[ply][0..1], -1 if none
+    private final int[][]  history; // history[player-1][square]
+
+    TicTacToeMoveOrdering(int heuristics, int nC, int nR, int nK) {
+        this.heuristics = heuristics;
+        this.nSquares   = nC*nR;
+        priors  = linesThrough(nC, nR, nK);
+        moves   = new int[nSquares+1][nSquares];
+        scores  = new int[nSquares];
+        killers = new int[nSquares+1][2];
+        history = new int[2][nSquares];
+        for (int[] killer : killers) { killer[0] = -1; killer[1] = -1; }
+    }
+
+    // Generates the free squares of board into movesAt(ply), best first; returns how many there are.
+    //   ttMove is the square to try first (-1 if none); iPos is used to visit the squares (and is left anywhere).
+    int generate(InterfacePosition board, InterfaceIterator iPos, int ply, int ttMove) {
+        int[] buffer = moves[ply];
+        int   nMoves = 0;
+        int   nC     = board.nC();
+        for (int square = 0; square < nSquares; square++) {
+            iPos.set(square%nC, square/nC);
+            if (board.getColor(iPos) == 0) buffer[nMoves++] = square;
+        }
+        if (heuristics == NONE) return nMoves;
+
+        int[] playerHistory = history[board.getPlayer()-1];
+        for (int i = 0; i < nMoves; i++) {
+            int square = buffer[i];
+            int score  = 0;
+            if ((heuristics & TT_MOVE) != 0 && square == ttMove) score = TT_MOVE_SCORE;
+            else {
+                if ((heuristics & PRIORS ) != 0) score  = priors[square] << PRIOR_SHIFT;
+                if ((heuristics & KILLERS) != 0 && square == killers[ply][0]) score += 3 << KILLER_SHIFT;
+                if ((heuristics & KILLERS) != 0 && square == killers[ply][1]) score += 2 << KILLER_SHIFT;
+                if ((heuristics & HISTORY) != 0) score += playerHistory[square];
+            }
+            // Insertion sort, best score first (stable, so equal moves stay in row-major order)
+            int j = i;
+            while (j > 0 && scores[j-1] < score) {
+                scores[j] = scores[j-1];
+                buffer[j] = buffer[j-1];
+                j--;
+            }
+            scores[j] = score;
+            buffer[j] = square;
+        }
+        return nMoves;
+    }
+
+    int[] movesAt(int ply) { return moves[ply]; }
+
+    // square, played by player at ply with depth left, caused a cutoff
+    void cutoff(int ply, int player, int square, int depth) {
+        if ((heuristics & KILLERS) != 0 && killers[ply][0] != square) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = square;
+        }
+        if ((heuristics & HISTORY) != 0) {
+            int[] playerHistory = history[player-1];
+            playerHistory[square] += depth*depth;
+            if (playerHistory[square] >= MAX_HISTORY) { // Keep scores in range; old cutoffs count for less
+                for (int[] h : history) {
+                    for (int sq = 0; sq < nSquares; sq++) h[sq] >>= 1;
+                }
+            }
+        }
+    }
+
+    // For each square, the number of lines of nK squares (in any of the 4 directions) that go through it
+    private static int[] linesThrough(int nC, int nR, int nK) {
+        int[]   lines      = new int[nC*nR];
+        int[][] directions = { {1,0}, {0,1}, {1,1}, {1,-1} };
+        for (int iR = 0; iR < nR; iR++) {
+            for (int iC = 0; iC < nC; iC++) { // (iC,iR) is the start of a line
+                for (int[] d : directions) {
+                    int endC = iC + d[0]*(nK-1), endR = iR + d[1]*(nK-1);
+                    if (endC < 0 || endC >= nC || endR < 0 || endR >= nR) continue;
+                    for (int k = 0; k < nK; k++) lines[nC*(iR + d[1]*k) + iC + d[0]*k]++;
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,177 @@
+package c_minimax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class TicTacToeParallelStrategy implements InterfaceStrategy {
+    // Parallel alpha-beta with iterative deepening, in the style of Young Brothers Wait:
+    //   at each of the top SPLIT_PLIES plies, the first (eldest) move is searched alone, to set the window.
+    //   Then the remaining (younger) brothers are searched in parallel, as tasks in a ForkJoinPool.
+    //   At the root this is a split of the root moves; below it, of whole subtrees.
+    // Past SPLIT_PLIES, each task runs the sequential search of TicTacToeAlphaBetaStrategy.
+    // All tasks share one lock-free transposition table (by default the one shared with TicTacToeAlphaBetaStrategy).
+    // Limits (max depth, max time) and cancel() are taken from the context, as in TicTacToeAlphaBetaStrategy.
+    // By default, tasks run in one pool (a worker per core) shared by all instances; a caller that passes its own pool
+    //   (to choose the number of threads) owns it, and shuts it down when done.
+
+    static final int SPLIT_PLIES = 2;
+
+    private static ForkJoinPool sharedPool = null; // One worker per core, shared by all default instances
+
+    private final ForkJoinPool pool;
+    private InterfaceTranspositionTable hashedStates = null; // By default, the shared table for the board of the first search
+    private long             deadline;  // System.nanoTime() after which the current iteration is abandoned
+    private volatile boolean outOfTime;
+    private TicTacToeSearchInfo root;   // Context of the whole search, checked for cancel()
+
+    TicTacToeParallelStrategy() { pool = getSharedPool(); }
+    TicTacToeParallelStrategy(ForkJoinPool pool, InterfaceTranspositionTable hashedStates) {
+        this.pool         = pool;
+        this.hashedStates = hashedStates;
+    }
+
+    private static synchronized ForkJoinPool getSharedPool() {
+        if (sharedPool == null) sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        return sharedPool;
+    }
+
+    int getParallelism() { return pool.getParallelism(); }
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        if (hashedStates == null) hashedStates = TicTacToeAlphaBetaStrategy.sharedTable(position);
+        hashedStates.newSearch();
+        // Each search runs on its own instance (sharing pool and table), as in TicTacToeAlphaBetaStrategy
+        long startTime = System.nanoTime();
+        new TicTacToeParallelStrategy(pool, hashedStates).iterativeDeepening(position, (TicTacToeSearchInfo) context);
+        long nanos = System.nanoTime() - startTime; // Before of(), which registers with JMX on first use
+        SearchStatistics.of("parallel").record((TicTacToeSearchInfo) context, nanos);
+    }
+
+    private void iterativeDeepening(InterfacePosition position, TicTacToeSearchInfo info) {
+        root           = info;
+        SearchMetrics metrics = info.getMetrics(); // Before any task can ask for it
+        int  nEmpty    = TicTacToeAlphaBetaStrategy.nEmpty(position);
+        int  maxDepth  = info.getMaxDepthSearchForThisPos();
+        int  minDepth  = Math.max(1, info.getMinDepthSearchForThisPos()); // Always complete depth 1 to have a move
+        long maxTime   = info.getMaxSearchTimeForThisPos() * 1000000L;    // ms -> ns
+        long startTime = System.nanoTime();
+        if (maxDepth <= 0 || maxDepth > nEmpty) maxDepth = nEmpty;
+
+        int firstMove = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            deadline  = (maxTime > 0 && depth > minDepth) ? startTime + maxTime : Long.MAX_VALUE;
+            outOfTime = false;
+            long iterationStart = System.nanoTime();
+            TicTacToeSearchInfo iteration = pool.invoke(new SplitTask(position, firstMove,
+                    info.getOwnBestScoreTwoMovesBackSoFar(), -info.getOpponentBestScoreOnPreviousMoveSoFar(), depth, 0));
+            info.addNodeCount(iteration.getNodeCount());
+            if (outOfTime) break;
+            metrics.iterationComplete(depth, iteration.getNodeCount(), System.nanoTime() - iterationStart);
+
+            InterfaceIterator bestMove = iteration.getBestMoveSoFar();
+            info.setBestMoveSoFar(bestMove, iteration.getBestScoreSoFar());
+            firstMove = position.nC()*bestMove.iR()+bestMove.iC();
+            if (Math.abs(iteration.getBestScoreSoFar()) >= 1) break; // The game is decided; deeper will not change it
+        }
+    }
+
+    private class SplitTask extends RecursiveTask<TicTacToeSearchInfo> {
+        // Searches position within the window (alpha,beta); the result is the position's context
+        private static final long serialVersionUID = 1L;
+        private final InterfacePosition position;
+        private final int   firstMove; // Square to search as the eldest brother, -1 if none
+        private final float alpha, beta;
+        private final int   depth, ply;
+
+        SplitTask(InterfacePosition position, int firstMove, float alpha, float beta, int depth, int ply) {
+            this.position  = position;
+            this.firstMove = firstMove;
+            this.alpha     = alpha;
+            this.beta      = beta;
+            this.depth     = depth;
+            this.ply       = ply;
+        }
+
+        @Override
+        protected TicTacToeSearchInfo compute() {
+            TicTacToeSearchInfo info = new TicTacToeSearchInfo();
+            info.setOwnBestScoreTwoMovesBackSoFar(alpha);
+            info.setOpponentBestScoreOnPreviousMoveSoFar(-beta);
+            TicTacToeAlphaBetaStrategy sequential = new TicTacToeAlphaBetaStrategy(hashedStates);
+            if (ply >= SPLIT_PLIES || depth <= 2) { // Too deep (or too small) to be worth splitting
+                if (!sequential.searchToDepth(position, info, depth, deadline, root)) outOfTime = true;
+                return info;
+            }
+            if (root.isCancelled()) {
+                outOfTime = true;
+                return info;
+            }
+            info.addNodeCount(1);
+            int player   = position.getPlayer();
+            int opponent = 3-player;
+            int nC       = position.nC();
+
+            // Children in search order (firstMove is the eldest); finished games are scored right away
+            List<InterfaceIterator> moves    = new ArrayList<InterfaceIterator>();
+            List<SplitTask>         children = new ArrayList<SplitTask>();
+            for (int i = -1; i < nC*position.nR(); i++) {
+                int square = i < 0 ? firstMove : i;
+                if (square < 0 || (i >= 0 && square == firstMove)) continue;
+                InterfaceIterator iPos = new TicTacToeIterator(nC, position.nR()); iPos.set(square%nC, square/nC);
+                if (position.getColor(iPos) != 0) continue; // Not a free spot
+
+                InterfacePosition posNew = sequential.copyOf(position);
+                posNew.setColor(iPos, player);
+                posNew.setPlayer(opponent);
+                int isWin = posNew.isWinner();
+                if (isWin != -1) {
+                    info.addNodeCount(1);
+                    float score = isWin == player ? 1 : isWin == opponent ? -1 : 0;
+                    if (score > info.getBestScoreSoFar()) info.setBestMoveSoFar(iPos, score);
+                } else {
+                    moves.add(iPos);
+                    children.add(new SplitTask(posNew, -1, 0, 0, depth-1, ply+1)); // Window is set below
+                }
+            }
+            float bestSoFar = Math.max(alpha, info.getBestScoreSoFar());
+            if (children.isEmpty() || bestSoFar >= beta) return info;
+
+            // The eldest brother is searched first, alone
+            addResult(info, moves.get(0), children.get(0).withWindow(-beta, -bestSoFar).invoke());
+            bestSoFar = Math.max(bestSoFar, info.getBestScoreSoFar());
+            if (outOfTime || bestSoFar >= beta) return info;
+
+            // Then the younger brothers, in parallel, within the window the eldest set
+            List<SplitTask> younger = new ArrayList<SplitTask>();
+            for (int i = 1; i < children.size(); i++) younger.add(children.get(i).withWindow(-beta, -bestSoFar));
+            invokeAll(younger);
+            for (int i = 0; i < younger.size(); i++) addResult(info, moves.get(i+1), younger.get(i).join());
+            return info;
+        }
+
+        private SplitTask withWindow(float alpha, float beta) {
+            return new SplitTask(position, firstMove, alpha, beta, depth, ply);
+        }
+
+        private void addResult(TicTacToeSearchInfo info, InterfaceIterator move, TicTacToeSearchInfo child) {
+            info.addNodeCount(child.getNodeCount());
+            float score = -child.getBestScoreSoFar();
+            if (score > info.getBestScoreSoFar()) info.setBestMoveSoFar(move, score);
+        }
+    }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
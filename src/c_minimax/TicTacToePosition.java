@@ -1,330 +1,366 @@
-package c_minimax;
-
-import java.util.HashMap;
-
-//author: Gary Kalmanovich; rights reserved
-
-public class TicTacToePosition implements InterfacePosition {
-    // This implementation packs the position into an int
-    // The int is between 0 and 4^9-1. This is not very compact, but efficient
-    // "Color" is convention, only integers are returned or set.
-    // 0-empty, 1-x (cross), 2-o (nought)
-    
-    // Rightmost 18=9*2 store color (each 2 bits stores 0,1,2; so it is a little lossy)
-    // Leftmost 1 bit stores player (1 or 2)
-
-    private int position;
-    HashMap<Integer,Integer> hashStates;
-    
-    TicTacToePosition() {
-        position = 0;
-   //     hashStates = new HashMap<>();
-    }
-
-    TicTacToePosition( InterfacePosition pos ) {
-        position = (int) pos.getRawPosition();
-     //   hashStates = new HashMap<>();
-    }
-    
-    TicTacToePosition(InterfacePosition pos, HashMap<Integer,Integer> states) {
-    	position = (int) pos.getRawPosition();
-    	hashStates = states;
-    }
-
-    @Override public int nC() { return 3; }
-    @Override public int nR() { return 3; }
-
-    @Override
-    public long getRawPosition() { 
-        return position;
-    }
-
-    @Override
-    public int getColor( InterfaceIterator iPos ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
-        int  iC  = iPos.iC();
-        int  iR  = iPos.iR();
-        return getColor( iC, iR);
-    }
-
-    public int getColor( int iC, int iR ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
-        // TODO Return a color at iC, iR from position (i.e., decode position)
-        // position is simply an int that encodes the position and whose move it is.
-    	//each row is 6 bits long
-    	//each column is 2 bits wide
-    	//shift by 6 to get to correct row, then shift by 2 to get to correct col
-    	//then & the last two bits so we don't get the 1 at the left messing us up
-    	 return position >> ((6*(iR))+(2*(iC))) & 3;
-    }
-
-    @Override
-    public void setColor( InterfaceIterator iPos, int color ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
-        int  iC  = iPos.iC();
-        int  iR  = iPos.iR();
-        if ( getColor(iC,iR) != 0 ) { 
-            System.err.println("Error: This position ("+iC+","+iR+") is already filled.");
-        } else {
-            // TODO add a "color" to the current position at iC, iR.
-            // position is simply an int that encodes the position and whose move it is.
-        	//First shift our new color to the right position
-        	int movePos = 6*(iR)+2*(iC);
-        	//now set the color at this spot to 00, then OR it with our new color
-        	position = (position & ~(3 << movePos)) | ((color & 3) << movePos);
-        }
-    }
-
-//    //OLD isWinner (probably broken) here:
-//    @Override
-//    public int isWinner() {
-//        //      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
-//        //      else if draw, return 0
-//        //      else if neither winner nor draw, return -1
-//
-//        // TODO using the getColor(0..2,0..2) method, determine if there is a winner
-//        // a draw, or neither.
-//        // Return the "color" of the winner if there is a winner; 0 if draw; -1 if in play
-//
-//    	//My strategy here is to check all the possibilities.
-//        //We could do a forloop but it would double-check spots, and when I tried to write it, it basically
-//    	//looked just like the series of checks below, saving me no automation. I haven't come up with a more compressed 
-//    	//way of writing this, plus it's more efficient to do the minimal set of checks.
-//    	//there are 8 total win conditions
-//    	//first check those that start from (0,0)
-//    	int returnColor = getColor(0,0);
-//    	if(returnColor != 0 && ((returnColor == getColor(0,1) && returnColor == getColor(0,2)) ||
-//				 (returnColor == getColor(1,0) && returnColor == getColor(2,0)) ||
-//				 (returnColor == getColor(1,1) && returnColor == getColor(2,2))))
-//    		return returnColor;
-//    	//ok, none of those positions has won. Let's check a different one.
-//    	//there's only one new win condition from 0,1.
-//    	returnColor = getColor(0,1);
-//    	if(returnColor != 0 && returnColor == getColor(1,1) && returnColor == getColor(2,1))
-//    		return returnColor;
-//    	//two new win conditions at 0,2
-//    	returnColor = getColor(0,2);
-//    	if(returnColor != 0 && ((returnColor == getColor(1,2) && returnColor == getColor(2,2))
-//    			|| (returnColor == getColor(1,1) && returnColor == getColor(2,0))))
-//    		return returnColor;
-//    	returnColor = getColor(1,0);
-//    	//one new win condition at 1,0
-//    	if(returnColor != 0 && (returnColor == getColor(1,1) && returnColor == getColor(1,2)))
-//    		return returnColor;
-//    	returnColor = getColor(2,0);
-//    	//one last win condition at 2,0
-//    	if(returnColor != 0 && (returnColor == getColor(2,1) && returnColor == getColor(2,2)))
-//    		return returnColor;
-//    	//ok, clearly no one has won yet, so let's see if all spaces are occupied
-//    	
-//    	for(int row=0;row<3;row++){
-//    		for(int col=0;col<3;col++){
-//    			if(getColor(row,col) == 0){
-//    				return -1; //still in play
-//    			}
-//    		}
-//    	}
-//    	//then if we haven't won, and all spaces are occupied, we're in a draw.
-//        return 0;
-//    }
-//    
-    public int setColorUnsafe( int iC, int iR, int color, int pos) {
-    	//first zero out the correct bits via an and
-    	int flusher = (3 << (iC*2 + iR*6)) ^ (3 << (iC*2 + iR*6));
-    	pos = pos & flusher;
-    	pos = pos | (color << (iC*2 + iR*6));
-    	return pos;
-    }
-
-    public int ver(int iC) {
-    	// Takes a column and checks if the ver is the same
-    	int retVal = 0;
-    	if ((getColor(iC,0) == getColor(iC,1)) && (getColor(iC,0) == getColor(iC,2))) { retVal = getColor(iC,0);}
-    	return retVal;
-    }
-
-    public int hor(int iR) {
-    	int retVal = 0;
-    	if ((getColor(0,iR) == getColor(1,iR)) && (getColor(0,iR) == getColor(2,iR))) { retVal = getColor(0,iR);}
-    	return retVal;
-    }
-
-    public boolean isDone() {
-    	boolean retVal = true;
-    	for( int i = 0; i < 3 ; i++) {
-    		for( int j = 0; j < 3 ; j++) { 
-    			if (getColor(i,j) == 0) {retVal = false;}
-    		}
-    	}
-    	return retVal;
-    }
-
-    //Due to the way Java works I am not making this return anything
-    //but I think what the code did would be more clear if it did
-    //basically it flips the position int across the y axis, which
-    //Due to the way setColor works modifies the state by default
-    public int flip(int pos) {
-    	for(int iR = 0; iR < 3;iR++){
-    		int temp = getColor(0,iR);
-    		pos = setColorUnsafe(0,iR, getColor(2,iR), pos);
-    		pos = setColorUnsafe(2,iR, temp, pos);
-    	}
-    	return pos;
-    }
-
-    //Makes a 90 degree clockwise rotation -- not that direction matters
-    //This is kind of ugly but who cares
-
-    //  x1| x2 | x3    copy x1 into temp1 then x3 into temp2
-    // _____________   put  x1 into position of x3
-    //    |    | x4    set temp1 = temp2
-    // _____________   copy x3 into temp2
-    //    |    |       ect.
-
-    public int rotate(int pos) {
-
-    	//First Do corners
-    	int temp1 = getColor(0,0);
-    	pos = setColorUnsafe(0,0,getColor(0,2),pos);
-    	int temp2 = getColor(2,0);
-
-    	pos = setColorUnsafe(2,0,temp1,pos);
-    	temp1 = temp2;
-    	temp2 = getColor(2,2);
-
-    	pos = setColorUnsafe(2,2,temp1,pos);
-    	temp1 = temp2;
-
-    	pos = setColorUnsafe(0,2,temp1,pos);
-
-    	// Now Sides
-    	temp1 = getColor(0,1);
-    	pos = setColorUnsafe(0,1,getColor(1,2),pos);
-    	temp2 = getColor(1,0);
-
-    	pos = setColorUnsafe(1,0,temp1,pos);
-    	temp1 = temp2;
-    	temp2 = getColor(2,1);
-
-    	pos = setColorUnsafe(2,1,temp1,pos);
-    	temp1 = temp2;
-
-    	pos = setColorUnsafe(1,2,temp1,pos);
-
-    	return pos;
-    }
-    
-    public void insertIntoHash(HashMap<Integer,Integer> hashedStates, Integer position, Integer status ) {
-    	hashedStates.put(position,status);
-    	position = flip(position);
-		hashedStates.put(position,status);
-		position = rotate(position); // 1
-		hashedStates.put(position,status);
-		position = flip(position);
-		hashedStates.put(position,status);
-		position = rotate(position); // 2
-		hashedStates.put(position,status);
-		position = flip(position);
-		hashedStates.put(position,status);
-		position = rotate(position); // 3
-		hashedStates.put(position,status);
-		position = flip(position);
-		hashedStates.put(position,status);
-		position = rotate(position); // 4
-		hashedStates.put(position,status);
-    }
-    
-    public int getColor( int squareNum ) { // 0 if empty, 1 if x(cross), 2 if o(donut)
-        // Return a color at square referenced by an integer from 0-8 from position (i.e., decode position)
-        // position is simply an int that encodes the position and whose move it is.
-    	
-    	return (int) (((position>>>((squareNum)*2)) | ~3L) & 3L);
-    }
-    
-    //for debugging
-    public String toString() {
-    	String state = 	getColor(0) + "|" + getColor(1) + "|" +getColor(2) + "\n" +
-    					"------------" +"\n" +
-    					getColor(3) + "|" + getColor(4) + "|" +getColor(5) + "\n" +
-    					"------------" +"\n" +
-    					getColor(6) + "|" + getColor(7) + "|" +getColor(8) + "\n";
-		return state;
-    	
-    }
-    
-    public int getTurnCount() {
-    	int result = 9;
-    	for (int i = 0; i < 9; i++) {
-    		if (getColor(i) == 0) {
-    			result--;
-    		}
-    	}
-    	return result;
-    }
-    //End added Methods
-
-    @Override
-    public int isWinner() {
-    	//      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
-    	//      else if draw, return 0
-    	//      else if neither winner nor draw, return -1
-
-    	// TODO using the getColor(0..2,0..2) method, determine if there is a winner
-    	// a draw, or neither.
-    	// Return the "color" of the winner if there is a winner; 0 if draw; -1 if in play
-
-    	// Note that one of five squares must be occupied for there to be a winner
-    	// Namely the intersection of the top row, and the left column 
-
-		int retVal = 0;
-
-		// First Check the Diagonals
-		if( (getColor(0,0) == getColor(1,1)) && (getColor(0,0) == getColor(2,2))) {
-			if(getColor(1,1) > 0) {retVal = getColor(1,1);}
-		}
-
-		if( (getColor(0,2) == getColor(1,1)) && (getColor(0,2) == getColor(2,0))) {
-			if(getColor(1,1) > 0) {retVal = getColor(1,1);}
-		}
-
-		// Now Check the rows and columns
-		for(int i = 0; i < 3; i++) {
-			if (retVal   > 0) {break;}
-			if (ver(i) != 0) {retVal = ver(i);}
-			if (hor(i) != 0) {retVal = hor(i);}
-		}
-
-		if (retVal > 0) return retVal;
-		else {
-			if (isDone()) {retVal = 0;}
-			else {retVal = -1;}
-		}
-		return retVal;
-    }
-
-    @Override
-    public void reset() {
-        position = 0;
-    }
-
-    @Override
-    public void setPlayer(int iPlayer) { // Only 1 or 2 are valid
-        if ( !(0<iPlayer && iPlayer<3) ) {
-            System.err.println("Error(TicTacToePosition::setPlayer): iPlayer ("+iPlayer+") out of bounds!!!");
-        } else {
-            int  currentPlayer = getPlayer();
-            if ( currentPlayer != iPlayer ) {
-                position ^= 1L << 31;
-            }
-        }
-    }
-
-    @Override
-    public int getPlayer() {
-        return ((int)(position>>>31))+1;
-    }
-
-    @Override
-    public float valuePosition() {
-        // Not yet used
-        return 0;
-    }
-
-}
+package c_minimax;
+
+import java.util.Arrays;
+
+//author: Gary Kalmanovich; rights reserved
+
+public class TicTacToePosition implements InterfacePosition {
+    // This implementation packs the position into an int
+    // The int is between 0 and 4^9-1. This is not very compact, but efficient
+    // "Color" is convention, only integers are returned or set.
+    // 0-empty, 1-x (cross), 2-o (nought)
+    
+    // Rightmost 18=9*2 store color (each 2 bits stores 0,1,2; so it is a little lossy)
+    // Leftmost 1 bit stores player (1 or 2)
+
+    private int position;
+    InterfaceTranspositionTable hashStates;
+    private static final ZobristKeys ZOBRIST = ZobristKeys.of(3, 3);
+    private static final KInARowPosition.Geometry GEOMETRY = KInARowPosition.Geometry.of(3, 3, 3); // Lines, for valuePosition()
+    private final long[] keys; // Zobrist key per symmetry, kept in step with position
+    
+    TicTacToePosition() {
+        position = 0;
+        keys     = ZOBRIST.newKeys();
+    }
+
+    TicTacToePosition( InterfacePosition pos ) {
+        position = (int) pos.getRawPosition();
+        keys     = pos instanceof TicTacToePosition ? ((TicTacToePosition) pos).keys.clone() : keysOf(position);
+    }
+    
+    TicTacToePosition(InterfacePosition pos, InterfaceTranspositionTable states) {
+    	this(pos);
+    	hashStates = states;
+    }
+
+    private static long[] keysOf( int pos ) { // Zobrist keys of pos, from scratch
+        long[] keys = ZOBRIST.newKeys();
+        addKeys(pos, keys);
+        return keys;
+    }
+
+    private static void addKeys( int pos, long[] keys ) { // keys (of the empty board) become those of pos
+        for (int sq = 0; sq < 9; sq++) {
+            int color = getColor(sq%3, sq/3, pos);
+            if (color != 0) ZOBRIST.toggleSquare(keys, sq, color);
+        }
+        if ((pos >>> 31) != 0) ZOBRIST.togglePlayer(keys);
+    }
+
+    void setRawPosition( int pos ) { // Becomes pos (as from getRawPosition()), without allocating
+        position = pos;
+        Arrays.fill(keys, 0);
+        addKeys(pos, keys);
+    }
+
+    @Override public long getHashKey()                 { return keys[0]; }
+    @Override public long getHashKey( int symmetry )   { return keys[symmetry]; }
+    @Override public int  getCanonicalSymmetry()       { return ZobristKeys.canonicalSymmetry(keys); }
+
+    @Override public int nC() { return 3; }
+    @Override public int nR() { return 3; }
+
+    @Override
+    public long getRawPosition() { 
+        return position;
+    }
+
+    @Override
+    public int getColor( InterfaceIterator iPos ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
+        int  iC  = iPos.iC();
+        int  iR  = iPos.iR();
+        return getColor( iC, iR);
+    }
+
+    public int getColor( int iC, int iR ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
+        // TODO Return a color at iC, iR from position (i.e., decode position)
+        // position is simply an int that encodes the position and whose move it is.
+    	//each row is 6 bits long
+    	//each column is 2 bits wide
+    	//shift by 6 to get to correct row, then shift by 2 to get to correct col
+    	//then & the last two bits so we don't get the 1 at the left messing us up
+    	 return position >> ((6*(iR))+(2*(iC))) & 3;
+    }
+
+    static int getColor( int iC, int iR, int pos ) { // Same as getColor(iC,iR), but decodes pos instead of this position
+    	return pos >> ((6*(iR))+(2*(iC))) & 3;
+    }
+
+    @Override
+    public void setColor( InterfaceIterator iPos, int color ) { // 0 if empty, 1 if x(cross), 2 if o(nought)
+        int  iC  = iPos.iC();
+        int  iR  = iPos.iR();
+        if ( getColor(iC,iR) != 0 ) { 
+            System.err.println("Error: This position ("+iC+","+iR+") is already filled.");
+        } else {
+            // TODO add a "color" to the current position at iC, iR.
+            // position is simply an int that encodes the position and whose move it is.
+        	//First shift our new color to the right position
+        	int movePos = 6*(iR)+2*(iC);
+        	//now set the color at this spot to 00, then OR it with our new color
+        	position = (position & ~(3 << movePos)) | ((color & 3) << movePos);
+        	if (color == 1 || color == 2) ZOBRIST.toggleSquare(keys, 3*iR+iC, color);
+        }
+    }
+
+    @Override
+    public void clearColor( InterfaceIterator iPos ) {
+        int color = getColor(iPos.iC(), iPos.iR());
+        if (color != 0) ZOBRIST.toggleSquare(keys, 3*iPos.iR()+iPos.iC(), color);
+        position &= ~(3 << (6*iPos.iR() + 2*iPos.iC()));
+    }
+
+//    //OLD isWinner (probably broken) here:
+//    @Override
+//    public int isWinner() {
+//        //      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
+//        //      else if draw, return 0
+//        //      else if neither winner nor draw, return -1
+//
+//        // TODO using the getColor(0..2,0..2) method, determine if there is a winner
+//        // a draw, or neither.
+//        // Return the "color" of the winner if there is a winner; 0 if draw; -1 if in play
+//
+//    	//My strategy here is to check all the possibilities.
+//        //We could do a forloop but it would double-check spots, and when I tried to write it, it basically
+//    	//looked just like the series of checks below, saving me no automation. I haven't come up with a more compressed 
+//    	//way of writing this, plus it's more efficient to do the minimal set of checks.
+//    	//there are 8 total win conditions
+//    	//first check those that start from (0,0)
+//    	int returnColor = getColor(0,0);
+//    	if(returnColor != 0 && ((returnColor == getColor(0,1) && returnColor == getColor(0,2)) ||
+//				 (returnColor == getColor(1,0) && returnColor == getColor(2,0)) ||
+//				 (returnColor == getColor(1,1) && returnColor == getColor(2,2))))
+//    		return returnColor;
+//    	//ok, none of those positions has won. Let's check a different one.
+//    	//there's only one new win condition from 0,1.
+//    	returnColor = getColor(0,1);
+//    	if(returnColor != 0 && returnColor == getColor(1,1) && returnColor == getColor(2,1))
+//    		return returnColor;
+//    	//two new win conditions at 0,2
+//    	returnColor = getColor(0,2);
+//    	if(returnColor != 0 && ((returnColor == getColor(1,2) && returnColor == getColor(2,2))
+//    			|| (returnColor == getColor(1,1) && returnColor == getColor(2,0))))
+//    		return returnColor;
+//    	returnColor = getColor(1,0);
+//    	//one new win condition at 1,0
+//    	if(returnColor != 0 && (returnColor == getColor(1,1) && returnColor == getColor(1,2)))
+//    		return returnColor;
+//    	returnColor = getColor(2,0);
+//    	//one last win condition at 2,0
+//    	if(returnColor != 0 && (returnColor == getColor(2,1) && returnColor == getColor(2,2)))
+//    		return returnColor;
+//    	//ok, clearly no one has won yet, so let's see if all spaces are occupied
+//    	
+//    	for(int row=0;row<3;row++){
+//    		for(int col=0;col<3;col++){
+//    			if(getColor(row,col) == 0){
+//    				return -1; //still in play
+//    			}
+//    		}
+//    	}
+//    	//then if we haven't won, and all spaces are occupied, we're in a draw.
+//        return 0;
+//    }
+//    
+    public int setColorUnsafe( int iC, int iR, int color, int pos) {
+    	//first zero out the correct bits via an and
+    	int flusher = ~(3 << (iC*2 + iR*6));
+    	pos = pos & flusher;
+    	pos = pos | (color << (iC*2 + iR*6));
+    	return pos;
+    }
+
+    public boolean isDone() {
+    	return getTurnCount() == 9;
+    }
+
+    //Due to the way Java works I am not making this return anything
+    //but I think what the code did would be more clear if it did
+    //basically it flips the position int across the y axis, which
+    //Due to the way setColor works modifies the state by default
+    public int flip(int pos) {
+    	int src = pos;
+    	for(int iR = 0; iR < 3;iR++){
+    		pos = setColorUnsafe(0,iR, getColor(2,iR,src), pos);
+    		pos = setColorUnsafe(2,iR, getColor(0,iR,src), pos);
+    	}
+    	return pos;
+    }
+
+    //Makes a 90 degree clockwise rotation -- not that direction matters
+    //Every square is read from the untouched copy (src), so no temporaries are needed
+    //  (0,0)->(2,0)->(2,2)->(0,2)->(0,0) and (0,1)->(1,0)->(2,1)->(1,2)->(0,1)
+
+    public int rotate(int pos) {
+    	int src = pos;
+
+    	//First Do corners
+    	pos = setColorUnsafe(0,0,getColor(0,2,src),pos);
+    	pos = setColorUnsafe(2,0,getColor(0,0,src),pos);
+    	pos = setColorUnsafe(2,2,getColor(2,0,src),pos);
+    	pos = setColorUnsafe(0,2,getColor(2,2,src),pos);
+
+    	// Now Sides
+    	pos = setColorUnsafe(0,1,getColor(1,2,src),pos);
+    	pos = setColorUnsafe(1,0,getColor(0,1,src),pos);
+    	pos = setColorUnsafe(2,1,getColor(1,0,src),pos);
+    	pos = setColorUnsafe(1,2,getColor(2,1,src),pos);
+
+    	return pos;
+    }
+    
+    public void insertIntoHash(InterfaceTranspositionTable hashedStates, int position, int status ) {
+    	// All 8 symmetric variants share one canonical key, so a single put covers them
+    	hashedStates.put(canonical(position),status);
+    }
+
+    // Symmetries of the square (the group D4): transform t is rotate^(t/2) applied after flip^(t%2)
+    //   SYMMETRY[t][sq] is the square that sq (=3*iR+iC) is moved to by transform t
+    //   INVERSE[t] is the transform that undoes t
+    //   ROW_IMAGE[t][iR][bits] is the packed board for row iR (6 bits) moved by transform t,
+    //   so that a whole board is transformed with 3 lookups
+    static final int   N_SYMMETRIES = 8;
+    static final int[][] SYMMETRY = new int[N_SYMMETRIES][9];
+    static final int[]   INVERSE  = new int[N_SYMMETRIES];
+    private static final int[][][] ROW_IMAGE = new int[N_SYMMETRIES][3][64];
+    static {
+    	for (int t = 0; t < N_SYMMETRIES; t++) {
+    		for (int sq = 0; sq < 9; sq++) {
+    			int iC = sq%3, iR = sq/3;
+    			if (t%2 == 1) { iC = 2-iC; } // flip (as in flip())
+    			for (int k = 0; k < t/2; k++) { int temp = iC; iC = 2-iR; iR = temp; } // rotate (as in rotate())
+    			SYMMETRY[t][sq] = 3*iR+iC;
+    		}
+    	}
+    	for (int t = 0; t < N_SYMMETRIES; t++) {
+    		for (int u = 0; u < N_SYMMETRIES; u++) {
+    			if (SYMMETRY[u][SYMMETRY[t][1]] == 1 && SYMMETRY[u][SYMMETRY[t][3]] == 3) { INVERSE[t] = u; }
+    		}
+    		for (int iR = 0; iR < 3; iR++) {
+    			for (int bits = 0; bits < 64; bits++) {
+    				int image = 0;
+    				for (int iC = 0; iC < 3; iC++) {
+    					image |= ((bits >> (2*iC)) & 3) << (2*SYMMETRY[t][3*iR+iC]);
+    				}
+    				ROW_IMAGE[t][iR][bits] = image;
+    			}
+    		}
+    	}
+    }
+
+    static int transform( int pos, int t ) { // Moves every square of pos by transform t; player is kept
+    	return ROW_IMAGE[t][0][ pos        & 63]
+    	     | ROW_IMAGE[t][1][(pos >>  6) & 63]
+    	     | ROW_IMAGE[t][2][(pos >> 12) & 63]
+    	     | (pos & ~0x3FFFF);
+    }
+
+    static int canonicalSymmetry( int pos ) { // The transform that maps pos to its smallest symmetric image
+    	int best = 0, bestImage = pos;
+    	for (int t = 1; t < N_SYMMETRIES; t++) {
+    		int image = transform(pos, t);
+    		if (image < bestImage) { best = t; bestImage = image; }
+    	}
+    	return best;
+    }
+
+    static int canonical( int pos ) {
+    	return transform(pos, canonicalSymmetry(pos));
+    }
+    
+    public int getColor( int squareNum ) { // 0 if empty, 1 if x(cross), 2 if o(donut)
+        // Return a color at square referenced by an integer from 0-8 from position (i.e., decode position)
+        // position is simply an int that encodes the position and whose move it is.
+    	
+    	return (int) (((position>>>((squareNum)*2)) | ~3L) & 3L);
+    }
+    
+    //for debugging
+    public String toString() {
+    	String state = 	getColor(0) + "|" + getColor(1) + "|" +getColor(2) + "\n" +
+    					"------------" +"\n" +
+    					getColor(3) + "|" + getColor(4) + "|" +getColor(5) + "\n" +
+    					"------------" +"\n" +
+    					getColor(6) + "|" + getColor(7) + "|" +getColor(8) + "\n";
+		return state;
+    	
+    }
+    
+    public int getTurnCount() {
+    	return Integer.bitCount(position & BOARD_MASK); // Every occupied square has exactly one bit set
+    }
+    //End added Methods
+
+    // Bit-parallel evaluation over the packed board (bits 0-17):
+    //   a cross sets the low bit of its 2-bit square, a nought sets the high bit.
+    //   CROSS_LINES[i] has the low bit of every square of line i set, NOUGHT_LINES[i] the high bit,
+    //   so a line is won when all of its bits are set.
+    static final int BOARD_MASK = 0x3FFFF;
+    private static final int[][] LINES = { {0,1,2}, {3,4,5}, {6,7,8},   // rows
+                                           {0,3,6}, {1,4,7}, {2,5,8},   // columns
+                                           {0,4,8}, {2,4,6} };          // diagonals
+    static final int[] CROSS_LINES  = new int[LINES.length];
+    static final int[] NOUGHT_LINES = new int[LINES.length];
+    static {
+    	for (int i = 0; i < LINES.length; i++) {
+    		for (int sq : LINES[i]) { CROSS_LINES[i] |= 1 << (2*sq); }
+    		NOUGHT_LINES[i] = CROSS_LINES[i] << 1;
+    	}
+    }
+
+    @Override
+    public int isWinner() {
+    	//      If winner, determine that and return winner, ("winner" is the color enumeration of the winner)
+    	//      else if draw, return 0
+    	//      else if neither winner nor draw, return -1
+    	int board = position & BOARD_MASK;
+    	for (int i = 0; i < CROSS_LINES.length; i++) {
+    		if ((board & CROSS_LINES[i] ) == CROSS_LINES[i] ) return 1;
+    		if ((board & NOUGHT_LINES[i]) == NOUGHT_LINES[i]) return 2;
+    	}
+    	return Integer.bitCount(board) == 9 ? 0 : -1;
+    }
+
+    @Override
+    public void reset() {
+        position = 0;
+        Arrays.fill(keys, 0);
+    }
+
+    @Override
+    public void setPlayer(int iPlayer) { // Only 1 or 2 are valid
+        if ( !(0<iPlayer && iPlayer<3) ) {
+            System.err.println("Error(TicTacToePosition::setPlayer): iPlayer ("+iPlayer+") out of bounds!!!");
+        } else {
+            int  currentPlayer = getPlayer();
+            if ( currentPlayer != iPlayer ) {
+                position ^= 1L << 31;
+                ZOBRIST.togglePlayer(keys);
+            }
+        }
+    }
+
+    @Override
+    public int getPlayer() {
+        return ((int)(position>>>31))+1;
+    }
+
+    private static int compactEvenBits( int x ) { // Bit 2*i of x to bit i
+        x = (x ^ (x >>> 1)) & 0x33333333;
+        x = (x ^ (x >>> 2)) & 0x0F0F0F0F;
+        x = (x ^ (x >>> 4)) & 0x00FF00FF;
+        return (x ^ (x >>> 8)) & 0x0000FFFF;
+    }
+
+    @Override
+    public float valuePosition() { // From the point of view of the player to move; see KInARowEvaluator
+        // Square sq=3*iR+iC is at bits 2*sq: the low bit of each pair is set for a cross, the high bit for a nought
+        long crosses = compactEvenBits(position        & 0x15555);
+        long noughts = compactEvenBits(position >>> 1  & 0x15555);
+        return getPlayer() == 1 ? KInARowEvaluator.evaluate(GEOMETRY, crosses, noughts)
+                                : KInARowEvaluator.evaluate(GEOMETRY, noughts, crosses);
+    }
+
+}
@@ -0,0 +1,221 @@
+package c_minimax;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TicTacToeSelfPlay {
+    // Headless engine-vs-engine games: drives InterfaceStrategy and InterfacePosition directly,
+    //   without TicTacToeView, GameManager or any other JavaFX class, so it runs on machines without a display.
+    // Games are split over a pool of worker threads, each with its own strategy instances.
+    // The first plies of every game are random (seeded by the game number), so that games differ
+    //   and a run is reproducible; the strategies play the rest.
+    //
+    // Usage: java c_minimax.TicTacToeSelfPlay [--x=strategy] [--o=strategy] [--games=n] [--threads=n]
+    //                                         [--board=nCxnRxnK] [--random-plies=n] [--time=ms] [--seed=n] [--playouts=n]
+    //                                         [--record=file]
+    //   strategy: minimax, alphabeta, parallel, tablebase, mcts or random
+    //   mcts runs on one thread per worker, with --playouts playouts per move (or for --time ms, if given)
+    //   --record writes every game to file, in the game-record format of TicTacToeGameRecord (3x3 only)
+    // Exits with status 1 if a strategy ever returned an illegal move (for use as a regression check).
+
+    private static final String[] STRATEGIES = { "minimax", "alphabeta", "parallel", "tablebase", "mcts", "random" };
+
+    private String xStrategy   = "tablebase";
+    private String oStrategy   = "tablebase";
+    private long   nGames      = 100000;
+    private int    nThreads    = Runtime.getRuntime().availableProcessors();
+    private int    nC = 3, nR = 3, nK = 3;
+    private int    randomPlies = 2;
+    private int    maxTime     = 0; // ms per move; 0 is unlimited
+    private long   seed        = 1;
+    private long   playouts    = 10000; // Per move, for mcts
+    private String recordFile  = null;
+    private TicTacToeGameRecordWriter recorder = null; // Shared by the workers, while run() runs
+
+    // Totals of a set of games; each worker keeps its own, and they are added at the end
+    static class Result {
+        long games, xWins, oWins, draws, moves, nodes, illegalMoves;
+
+        void add(Result other) {
+            games        += other.games;
+            xWins        += other.xWins;
+            oWins        += other.oWins;
+            draws        += other.draws;
+            moves        += other.moves;
+            nodes        += other.nodes;
+            illegalMoves += other.illegalMoves;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        TicTacToeSelfPlay selfPlay = new TicTacToeSelfPlay();
+        for (String arg : args) {
+            if (!selfPlay.parse(arg)) {
+                System.err.println("Error(TicTacToeSelfPlay::main): unknown argument ("+arg+")");
+                System.exit(2);
+            }
+        }
+        if (selfPlay.xStrategy.equals("tablebase") || selfPlay.oStrategy.equals("tablebase")) {
+            TicTacToeTablebase.shared(); // Loaded before the clock starts
+        }
+        long   startTime = System.nanoTime();
+        Result result    = selfPlay.run();
+        double seconds   = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.println(selfPlay.xStrategy+" (x) vs "+selfPlay.oStrategy+" (o), "+selfPlay.nC+"x"+selfPlay.nR+" k"+selfPlay.nK
+                           +", "+selfPlay.randomPlies+" random plies, "+selfPlay.nThreads+" threads");
+        System.out.println("games: "+result.games+" in "+seconds+" s, "+(result.games/seconds)+" games/sec, "
+                           +(result.nodes/seconds)+" nodes/sec, "+((double) result.moves/result.games)+" moves/game");
+        System.out.println("x wins: "+percent(result.xWins, result.games)+"%, o wins: "+percent(result.oWins, result.games)
+                           +"%, draws: "+percent(result.draws, result.games)+"%, illegal moves: "+result.illegalMoves);
+        for (SearchStatistics statistics : SearchStatistics.all()) System.out.println(statistics);
+        if (result.illegalMoves > 0) System.exit(1);
+    }
+
+    private boolean parse(String arg) {
+        int equals = arg.indexOf('=');
+        if (!arg.startsWith("--") || equals < 0) return false;
+        String name  = arg.substring(2, equals);
+        String value = arg.substring(equals + 1);
+        if      (name.equals("x")           ) xStrategy   = checkStrategy(value);
+        else if (name.equals("o")           ) oStrategy   = checkStrategy(value);
+        else if (name.equals("games")       ) nGames      = Long.parseLong(value);
+        else if (name.equals("threads")     ) nThreads    = Integer.parseInt(value);
+        else if (name.equals("random-plies")) randomPlies = Integer.parseInt(value);
+        else if (name.equals("time")        ) maxTime     = Integer.parseInt(value);
+        else if (name.equals("seed")        ) seed        = Long.parseLong(value);
+        else if (name.equals("playouts")    ) playouts    = Long.parseLong(value);
+        else if (name.equals("record")      ) recordFile  = value;
+        else if (name.equals("board")       ) {
+            String[] dims = value.split("x");
+            nC = Integer.parseInt(dims[0]); nR = Integer.parseInt(dims[1]); nK = Integer.parseInt(dims[2]);
+        }
+        else return false;
+        return true;
+    }
+
+    private static String checkStrategy(String name) {
+        for (String strategy : STRATEGIES) {
+            if (strategy.equals(name)) return name;
+        }
+        throw new IllegalArgumentException("unknown strategy ("+name+")");
+    }
+
+    Result run() throws InterruptedException, ExecutionException, IOException {
+        if (recordFile != null) {
+            if (!(newPosition() instanceof TicTacToePosition)) {
+                throw new IllegalArgumentException("games are recorded on 3x3 (3 in a row) only");
+            }
+            recorder = new TicTacToeGameRecordWriter(Paths.get(recordFile));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<Result>> futures = new ArrayList<Future<Result>>();
+            for (int worker = 0; worker < nThreads; worker++) {
+                final long firstGame = nGames *  worker    / nThreads;
+                final long lastGame  = nGames * (worker+1) / nThreads;
+                futures.add(pool.submit(new Callable<Result>() {
+                    @Override public Result call() { return playGames(firstGame, lastGame); }
+                }));
+            }
+            Result total = new Result();
+            for (Future<Result> future : futures) total.add(future.get());
+            return total;
+        } finally {
+            pool.shutdown();
+            if (recorder != null) recorder.close();
+            recorder = null;
+        }
+    }
+
+    private Result playGames(long firstGame, long lastGame) {
+        InterfaceStrategy x = newStrategy(xStrategy);
+        InterfaceStrategy o = newStrategy(oStrategy);
+        Result result = new Result();
+        for (long game = firstGame; game < lastGame; game++) {
+            playGame(x, o, new Random(seed * 0x9E3779B97F4A7C15L + game), result);
+        }
+        return result;
+    }
+
+    private void playGame(InterfaceStrategy x, InterfaceStrategy o, Random random, Result result) {
+        InterfacePosition position = newPosition();
+        position.setPlayer(1);
+        int   winner = -1;
+        int[] moves  = new int[nC*nR]; // Squares played, for the record
+        int   nMoves = 0;
+        for (int ply = 0; winner == -1; ply++) {
+            int player = position.getPlayer();
+            InterfaceStrategy strategy = player == 1 ? x : o;
+            InterfaceIterator move;
+            if (ply < randomPlies || strategy == null) {
+                move = randomMove(position, random);
+            } else {
+                TicTacToeSearchInfo context = new TicTacToeSearchInfo();
+                if (maxTime > 0) context.setMaxSearchTimeForThisPos(maxTime);
+                strategy.getBestMove(position, context);
+                result.nodes += context.getNodeCount();
+                move = context.getBestMoveSoFar();
+                if (move == null || !move.isInBounds() || position.getColor(move) != 0) {
+                    result.illegalMoves++;
+                    winner = 3-player; // Forfeit
+                    break;
+                }
+            }
+            position.setColor(move, player);
+            position.setPlayer(3-player);
+            moves[nMoves++] = nC*move.iR() + move.iC();
+            result.moves++;
+            winner = position.isWinner();
+        }
+        result.games++;
+        if (recorder != null) record(moves, nMoves, winner);
+        if      (winner == 1) result.xWins++;
+        else if (winner == 2) result.oWins++;
+        else                  result.draws++;
+    }
+
+    private void record(int[] moves, int nMoves, int winner) {
+        try {
+            recorder.write(0, moves, 0, nMoves, TicTacToeGameRecord.result(winner)); // From the empty board
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot record game: "+e.getMessage(), e);
+        }
+    }
+
+    private InterfacePosition newPosition() {
+        if (nC == 3 && nR == 3 && nK == 3) return new TicTacToePosition();
+        else                               return new KInARowPosition(nC, nR, nK);
+    }
+
+    private InterfaceIterator randomMove(InterfacePosition position, Random random) {
+        InterfaceIterator iPos = new TicTacToeIterator(nC, nR);
+        int nEmpty = TicTacToeAlphaBetaStrategy.nEmpty(position);
+        for (int skip = random.nextInt(nEmpty); ; iPos.increment()) { // Terminates: the game is not over, so nEmpty > 0
+            if (position.getColor(iPos) == 0 && skip-- == 0) return iPos;
+        }
+    }
+
+    // A new instance per worker; null for random. As in TicTacToeControl, minimax only plays 3x3 (3 in a row).
+    private InterfaceStrategy newStrategy(String name) {
+        if (name.equals("minimax"  )) return newPosition() instanceof TicTacToePosition ? new TicTacToeStrategy()
+                                                                                       : new TicTacToeAlphaBetaStrategy();
+        if (name.equals("alphabeta")) return new TicTacToeAlphaBetaStrategy();
+        if (name.equals("parallel" )) return new TicTacToeParallelStrategy();
+        if (name.equals("tablebase")) return new TicTacToeTablebaseStrategy();
+        if (name.equals("mcts"     )) return new TicTacToeMCTSStrategy(1, maxTime > 0 ? 0 : playouts);
+        return null;
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+}
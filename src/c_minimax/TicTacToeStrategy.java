@@ -1,167 +1,216 @@
-package c_minimax;
-
-import java.util.HashMap;
-
-import c_minimax.InterfaceIterator;
-import c_minimax.InterfacePosition;
-import c_minimax.InterfaceStrategy;
-import c_minimax.TicTacToeIterator;
-import c_minimax.TicTacToePosition;
-
-//author: Gary Kalmanovich; rights reserved
-
-public class TicTacToeStrategy implements InterfaceStrategy {
-	
-    private HashMap<Integer,Integer> hashedStates = new HashMap<Integer,Integer>();
-	
-    @Override
-    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
-        // Note, return information is embedded in context
-        int player = position.getPlayer();
-        int opponent = 3-player; // There are two players, 1 and 2.
-        for ( InterfaceIterator iPos = new TicTacToeIterator(); iPos.isInBounds(); iPos.increment() ) {
-            InterfacePosition posNew = new TicTacToePosition(position,hashedStates);
-            if (posNew.getColor(iPos) == 0) { // This is a free spot
-                posNew.setColor(iPos, player);
-                // if this game state had been saved before
-                if (hashedStates.containsKey(posNew.getRawPosition())) {
-                	Integer savedScore = hashedStates.get(posNew.getRawPosition());
-                	if (savedScore > context.getBestScoreSoFar())
-                		context.setBestMoveSoFar(iPos,savedScore);
-                		((TicTacToePosition) posNew).insertIntoHash(hashedStates, 
-                			((Long)posNew.getRawPosition()).intValue(), savedScore);
-                		if (savedScore > 0)
-                			return; //prune after finding the saved best move
-                } else {
-	                int isWin = posNew.isWinner();
-	                //if the game is finished
-	            	if (isWin != -1) {
-	            		if (isWin == player) {
-	                		context.setBestMoveSoFar(iPos,1);
-	                	} else if(isWin == opponent){
-	                    	context.setBestMoveSoFar(iPos,-1);
-	                    } else {
-	                    	context.setBestMoveSoFar(iPos,0);
-	                    }
-	            		return;
-	            	}
-	                float score = 0;
-	                //if the game is still going...
-	                if(isWin == -1){
-	                    posNew.setPlayer(opponent);
-	                    //create a new context so we can get its score from the children
-	                    InterfaceSearchInfo newContext = new TicTacToeSearchInfo();
-	                    getBestMove(posNew,newContext);
-	                    score = -1 * newContext.getBestScoreSoFar();
-		                //we want a max 
-		                if(score > context.getBestScoreSoFar()){
-		                	((TicTacToeSearchInfo)context).setBestMoveSoFar(iPos,score, posNew);
-		                	if (score == 1) {
-		                		((TicTacToePosition) posNew).insertIntoHash(hashedStates, 
-		                				((Long)posNew.getRawPosition()).intValue(), 1);
-		                		return;
-		                	}
-		                }
-	                }
-                }
-            }
-        }
-        if (player == 1) {
-	        TicTacToePosition bestGameState = (TicTacToePosition) ((TicTacToeSearchInfo)context).getBestGameState();
-	        if (bestGameState.getTurnCount() < 8) {
-		        bestGameState.insertIntoHash(hashedStates, ((int)bestGameState.getRawPosition()), (int) context.getBestScoreSoFar());
-	        }
-        }
-        return;
-    }
-    
-    @Override
-    public void setContext(InterfaceSearchInfo strategyContext) {
-        // Not used in this strategy
-    }
-
-    @Override
-    public InterfaceSearchInfo getContext() {
-        // Not used in this strategy
-        return null;
-    }
-}
-
-
-class TicTacToeSearchInfo implements InterfaceSearchInfo {
-	
-	InterfacePosition bestGameState  = null;
-    InterfaceIterator bestMoveSoFar  = null;
-    float             bestScoreSoFar = Float.NEGATIVE_INFINITY;
-    
-    public InterfacePosition getBestGameState() {
-    	return bestGameState;
-    }
-    
-    @Override
-    public InterfaceIterator getBestMoveSoFar() {
-        return bestMoveSoFar;
-    }
-
-    @Override
-    public float getBestScoreSoFar() {
-        return bestScoreSoFar;
-    }
-
-    @Override
-    public void setBestMoveSoFar(InterfaceIterator newMove, float newScore) {
-        bestMoveSoFar  = new TicTacToeIterator(newMove);
-        bestScoreSoFar = newScore;
-    }
-    
-    public void setBestMoveSoFar(InterfaceIterator newMove, float newScore, InterfacePosition gameState) {
-        bestMoveSoFar  = new TicTacToeIterator(newMove);
-        bestScoreSoFar = newScore;
-        bestGameState  = gameState;
-    }
-    
-    @Override
-    public int getMinDepthSearchForThisPos() {
-        // Not used in this strategy
-        return 0;
-    }
-
-    @Override
-    public void setMinDepthSearchForThisPos(int minDepth) {
-        // Not used in this strategy
-    }
-
-    @Override
-    public int getMaxDepthSearchForThisPos() {
-        // Not used in this strategy
-        return 0;
-    }
-
-    @Override
-    public void setMaxDepthSearchForThisPos(int minDepth) {
-        // Not used in this strategy
-    }
-
-    @Override
-    public int getMaxSearchTimeForThisPos() {
-        // Not used in this strategy
-        return 0;
-    }
-
-    @Override
-    public void setMaxSearchTimeForThisPos(int maxTime) {
-        // Not used in this strategy
-    }
-
-    @Override
-    public float getOpponentBestScoreOnPreviousMoveSoFar() {
-        // Not used in this strategy
-        return 0;
-    }
-
-    @Override
-    public void setOpponentBestScoreOnPreviousMoveSoFar(float scoreToBeat) {
-        // Not used in this strategy
-    }
-
-}
+package c_minimax;
+
+import c_minimax.InterfaceIterator;
+import c_minimax.InterfacePosition;
+import c_minimax.InterfaceStrategy;
+import c_minimax.TicTacToeIterator;
+import c_minimax.TicTacToePosition;
+
+//author: Gary Kalmanovich; rights reserved
+
+public class TicTacToeStrategy implements InterfaceStrategy {
+	
+    // By default shared by all instances, so a new strategy (e.g., from TicTacToeControl.setStrategy) starts with a warm cache
+    private final InterfaceTranspositionTable hashedStates;
+    private static final ZobristKeys ZOBRIST = ZobristKeys.of(3, 3); // Symmetries of the 3x3 board
+
+    TicTacToeStrategy() {
+        this(LockFreeTranspositionTable.shared("minimax TicTacToePosition",
+                TicTacToeTranspositionTable.DEFAULT_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.ALWAYS_REPLACE));
+    }
+    TicTacToeStrategy(InterfaceTranspositionTable hashedStates) { this.hashedStates = hashedStates; }
+	
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        TicTacToeSearchInfo info = (TicTacToeSearchInfo) context;
+        hashedStates.newSearch();
+        long startTime = System.nanoTime();
+        search(position, info, info.getMetrics());
+        long nanos = System.nanoTime() - startTime;
+        info.getMetrics().iterationComplete(TicTacToeAlphaBetaStrategy.nEmpty(position), info.getNodeCount(), nanos);
+        SearchStatistics.of("minimax").record(info, nanos);
+    }
+
+    private void search(InterfacePosition position, InterfaceSearchInfo context, SearchMetrics metrics) {
+        ((TicTacToeSearchInfo)context).addNodeCount(1);
+        int player = position.getPlayer();
+        int opponent = 3-player; // There are two players, 1 and 2.
+
+        // Positions are saved under their canonical (smallest symmetric) Zobrist key, with the best move
+        // in canonical coordinates. The move is mapped back through the inverse transform.
+        int  symmetry = position.getCanonicalSymmetry();
+        long key      = position.getHashKey(symmetry);
+        int  saved    = hashedStates.get(key);
+        metrics.probe(saved != InterfaceTranspositionTable.NOT_FOUND);
+        if (saved != InterfaceTranspositionTable.NOT_FOUND) {
+            int square = ZOBRIST.symmetry[ZOBRIST.inverse[symmetry]][TicTacToeTranspositionTable.move(saved)];
+            InterfaceIterator iPos = new TicTacToeIterator(); iPos.set(square%3, square/3);
+            context.setBestMoveSoFar(iPos, TicTacToeTranspositionTable.fromScore(TicTacToeTranspositionTable.score(saved)));
+            return;
+        }
+
+        for ( InterfaceIterator iPos = new TicTacToeIterator(); iPos.isInBounds(); iPos.increment() ) {
+            InterfacePosition posNew = new TicTacToePosition(position,hashedStates);
+            if (posNew.getColor(iPos) == 0) { // This is a free spot
+                posNew.setColor(iPos, player);
+                posNew.setPlayer(opponent);
+                float score;
+                int isWin = posNew.isWinner();
+                if (isWin == -1) { //if the game is still going...
+                    //create a new context so we can get its score from the children
+                    InterfaceSearchInfo newContext = new TicTacToeSearchInfo();
+                    search(posNew,newContext,metrics);
+                    score = -1 * newContext.getBestScoreSoFar();
+                    ((TicTacToeSearchInfo)context).addNodeCount(((TicTacToeSearchInfo)newContext).getNodeCount());
+                } else { //if the game is finished
+                    score = isWin == player ? 1 : isWin == opponent ? -1 : 0;
+                    ((TicTacToeSearchInfo)context).addNodeCount(1);
+                }
+                //we want a max
+                if (score > context.getBestScoreSoFar()) {
+                    ((TicTacToeSearchInfo)context).setBestMoveSoFar(iPos,score, posNew);
+                    if (score == 1) { //prune, nothing beats a win
+                        metrics.cutoff();
+                        break;
+                    }
+                }
+            }
+        }
+
+        InterfaceIterator bestMove = context.getBestMoveSoFar();
+        int canonicalMove = ZOBRIST.symmetry[symmetry][3*bestMove.iR()+bestMove.iC()];
+        hashedStates.put(key, TicTacToeTranspositionTable.pack(TicTacToeTranspositionTable.toScore(context.getBestScoreSoFar()), canonicalMove));
+        metrics.store();
+    }
+    
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
+
+
+class TicTacToeSearchInfo implements InterfaceSearchInfo {
+	
+	InterfacePosition bestGameState  = null;
+    InterfaceIterator bestMoveSoFar  = null;
+    float             bestScoreSoFar = Float.NEGATIVE_INFINITY;
+    // Alpha-beta window, each from the point of view of the player who set it:
+    //   opponentBestScore - what the opponent is already guaranteed on the previous move (beta = -opponentBestScore)
+    //   ownBestScore      - what this player is already guaranteed two moves back        (alpha = ownBestScore)
+    float             opponentBestScore = Float.NEGATIVE_INFINITY;
+    float             ownBestScore      = Float.NEGATIVE_INFINITY;
+    long              nodeCount         = 0; // Positions visited by the search (including this one)
+    // Search limits; 0 means no limit
+    int               minDepth          = 0; // Depth that is always completed, even past maxTime
+    int               maxDepth          = 0;
+    int               maxTime           = 0; // milliseconds
+    private volatile boolean cancelled  = false;
+    private SearchMetrics    metrics    = null; // Created by the first getMetrics(), i.e., only for the context of a whole search
+    
+    public InterfacePosition getBestGameState() {
+    	return bestGameState;
+    }
+    
+    @Override
+    public InterfaceIterator getBestMoveSoFar() {
+        return bestMoveSoFar;
+    }
+
+    @Override
+    public float getBestScoreSoFar() {
+        return bestScoreSoFar;
+    }
+
+    @Override
+    public void setBestMoveSoFar(InterfaceIterator newMove, float newScore) {
+        bestMoveSoFar  = new TicTacToeIterator(newMove);
+        bestScoreSoFar = newScore;
+    }
+    
+    public void setBestMoveSoFar(InterfaceIterator newMove, float newScore, InterfacePosition gameState) {
+        bestMoveSoFar  = new TicTacToeIterator(newMove);
+        bestScoreSoFar = newScore;
+        bestGameState  = gameState;
+    }
+    
+    @Override
+    public int getMinDepthSearchForThisPos() {
+        return minDepth;
+    }
+
+    @Override
+    public void setMinDepthSearchForThisPos(int minDepth) {
+        this.minDepth = minDepth;
+    }
+
+    @Override
+    public int getMaxDepthSearchForThisPos() {
+        return maxDepth;
+    }
+
+    @Override
+    public void setMaxDepthSearchForThisPos(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public int getMaxSearchTimeForThisPos() {
+        return maxTime;
+    }
+
+    @Override
+    public void setMaxSearchTimeForThisPos(int maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    @Override
+    public float getOpponentBestScoreOnPreviousMoveSoFar() {
+        return opponentBestScore;
+    }
+
+    @Override
+    public void setOpponentBestScoreOnPreviousMoveSoFar(float scoreToBeat) {
+        opponentBestScore = scoreToBeat;
+    }
+
+    public float getOwnBestScoreTwoMovesBackSoFar() {
+        return ownBestScore;
+    }
+
+    public void setOwnBestScoreTwoMovesBackSoFar(float scoreToBeat) {
+        ownBestScore = scoreToBeat;
+    }
+
+    // Asks a search running on another thread to stop as soon as it can (its result is then incomplete)
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // The metrics of the search this context was passed to (at the root, i.e., by getBestMove).
+    //   Strategies call it once before searching, so that it is not created concurrently.
+    public SearchMetrics getMetrics() {
+        if (metrics == null) metrics = new SearchMetrics();
+        return metrics;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public void addNodeCount(long nodes) {
+        nodeCount += nodes;
+    }
+
+}
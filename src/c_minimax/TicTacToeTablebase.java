@@ -0,0 +1,201 @@
+package c_minimax;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TicTacToeTablebase {
+    // Perfect play for every reachable 3x3 position, solved once (offline) and read from a memory-mapped file.
+    // Positions are keyed by their canonical (smallest symmetric) raw position, player bit included,
+    //   so the tablebase covers games started by either player.
+    // Each value is TicTacToeTranspositionTable.pack(score, move): score (1, 0, -1) for the player to move,
+    //   and the best move in canonical coordinates. Among moves with the same score, the fastest win
+    //   (or the slowest loss) is kept. Finished positions have no move and are not stored.
+    //
+    // File layout (big endian):
+    //   header: MAGIC, VERSION, nSlots (a power of 2), nEntries (4 ints)
+    //   slots:  nSlots x (int key, int value), open addressing with linear probing; EMPTY_KEY marks a free slot
+    //
+    // The shared tablebase is loaded once, on the first call to shared() (MainClass and TicTacToeSelfPlay make it
+    //   at startup, so no move waits for it), from
+    //   the file named by -Dc_minimax.tablebase=<file> if set, otherwise from RESOURCE, which ships next to this class:
+    //   on the class path, or else in the source tree (as TicTacToeView finds its resources).
+    //   A file is memory-mapped; a resource inside a jar is read into memory. If there is none, the tablebase is
+    //   solved in memory (a few hundred milliseconds). Nothing is ever written.
+    //
+    // Generate the file with:  java c_minimax.TicTacToeTablebase [file]   (by default, src/c_minimax/RESOURCE)
+
+    static final String FILE_PROPERTY = "c_minimax.tablebase";
+    static final String RESOURCE      = "TicTacToe.tablebase";
+    static final int    MAGIC        = 0x54545442; // "TTTB"
+    static final int    VERSION      = 1;
+    private static final int HEADER_BYTES = 4*4;
+    private static final int SLOT_BYTES   = 2*4;
+    private static final int EMPTY_KEY    = -1; // Color 3 in every square: never a position
+
+    private final ByteBuffer slots; // The whole file (header included); only read with absolute gets
+    private final int        mask;
+    private final int        nEntries;
+
+
+    private TicTacToeTablebase( ByteBuffer buffer ) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("not a TicTacToe tablebase (version "+VERSION+")");
+        }
+        int nSlots = buffer.getInt(8);
+        if (Integer.bitCount(nSlots) != 1 || buffer.capacity() != HEADER_BYTES + (long) nSlots*SLOT_BYTES) {
+            throw new IOException("tablebase is truncated or corrupt");
+        }
+        slots    = buffer;
+        mask     = nSlots - 1;
+        nEntries = buffer.getInt(12);
+    }
+
+    // Memory-maps a tablebase file written by generate()
+    static TicTacToeTablebase load( Path file ) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TicTacToeTablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static class Shared { // Initialized (thread-safely) by the first call to shared()
+        static final TicTacToeTablebase TABLEBASE = open();
+    }
+
+    // The process-wide tablebase
+    static TicTacToeTablebase shared() {
+        return Shared.TABLEBASE;
+    }
+
+    private static TicTacToeTablebase open() {
+        String property = System.getProperty(FILE_PROPERTY);
+        try {
+            if (property != null) return load(Paths.get(property));
+            URL resource = TicTacToeTablebase.class.getResource(RESOURCE);
+            if (resource == null) { // Not on the class path: in the source tree, as for TicTacToeView
+                URL source = new URL(TicTacToeTablebase.class.getResource("").toExternalForm()+"../../src/c_minimax/"+RESOURCE);
+                if (source.getProtocol().equals("file") && Files.isRegularFile(Paths.get(source.toURI()))) resource = source;
+            }
+            if (resource != null) return load(resource);
+            System.err.println("Error(TicTacToeTablebase::open): "+RESOURCE+" not found; solving the tablebase in memory");
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Error(TicTacToeTablebase::open): cannot load the tablebase ("+e.getMessage()+"); solving it in memory");
+        }
+        try {
+            return new TicTacToeTablebase(build());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // build() always writes a valid header
+        }
+    }
+
+    // Memory-maps resource if it is a file; otherwise (in a jar) reads it
+    private static TicTacToeTablebase load( URL resource ) throws IOException, URISyntaxException {
+        if (resource.getProtocol().equals("file")) return load(Paths.get(resource.toURI()));
+        try (InputStream in = resource.openStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1 << 13];
+            for (int n; (n = in.read(chunk)) > 0; ) bytes.write(chunk, 0, n);
+            return new TicTacToeTablebase(ByteBuffer.wrap(bytes.toByteArray()));
+        }
+    }
+
+    static void generate( Path file ) throws IOException {
+        Files.write(file, build().array());
+    }
+
+    // The packed value of canonical key, or InterfaceTranspositionTable.NOT_FOUND
+    int get( int key ) {
+        for ( int slot = hash(key) & mask; ; slot = (slot + 1) & mask ) { // Terminates since the table is never full
+            int offset = HEADER_BYTES + slot*SLOT_BYTES;
+            int stored = slots.getInt(offset);
+            if (stored == key      ) return slots.getInt(offset + 4);
+            if (stored == EMPTY_KEY) return InterfaceTranspositionTable.NOT_FOUND;
+        }
+    }
+
+    int size() { return nEntries; }
+
+    private static int hash( int key ) {
+        long h = key * 0x9E3779B97F4A7C15L; // As in TicTacToeTranspositionTable
+        return (int)(h ^ (h >>> 32));
+    }
+
+    // Solves every position reachable from the empty board (with either player to move) into a tablebase image
+    private static ByteBuffer build() {
+        Map<Integer,Integer> solved = new HashMap<Integer,Integer>(); // canonical key -> packed value
+        Map<Integer,Integer> values = new HashMap<Integer,Integer>(); // canonical key -> value returned by solve()
+        for (int player = 1; player <= 2; player++) {
+            TicTacToePosition empty = new TicTacToePosition();
+            empty.setPlayer(player);
+            solve(empty, solved, values);
+        }
+
+        int nSlots = Integer.highestOneBit(2*solved.size() - 1) << 1; // At most half full
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + nSlots*SLOT_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nSlots).putInt(solved.size());
+        for (int slot = 0; slot < nSlots; slot++) {
+            buffer.putInt(EMPTY_KEY).putInt(0);
+        }
+        for (Map.Entry<Integer,Integer> entry : solved.entrySet()) {
+            int key  = entry.getKey();
+            int slot = hash(key) & (nSlots - 1);
+            while (buffer.getInt(HEADER_BYTES + slot*SLOT_BYTES) != EMPTY_KEY) slot = (slot + 1) & (nSlots - 1);
+            buffer.putInt(HEADER_BYTES + slot*SLOT_BYTES,     key);
+            buffer.putInt(HEADER_BYTES + slot*SLOT_BYTES + 4, entry.getValue());
+        }
+        return buffer;
+    }
+
+    // Negamax to the end of the game. Returns, for the player to move, 10 - (number of marks at the end)
+    //   if it wins, minus that if it loses, and 0 for a draw; so a sooner win is worth more.
+    private static int solve( TicTacToePosition position, Map<Integer,Integer> solved, Map<Integer,Integer> values ) {
+        int player   = position.getPlayer();
+        int opponent = 3-player;
+        int raw      = (int) position.getRawPosition();
+        int symmetry = TicTacToePosition.canonicalSymmetry(raw);
+        int key      = TicTacToePosition.transform(raw, symmetry);
+        Integer known = values.get(key);
+        if (known != null) return known;
+
+        int bestValue = Integer.MIN_VALUE, bestSquare = -1;
+        for ( InterfaceIterator iPos = new TicTacToeIterator(); iPos.isInBounds(); iPos.increment() ) {
+            if (position.getColor(iPos) != 0) continue; // Not a free spot
+            TicTacToePosition posNew = new TicTacToePosition(position);
+            posNew.setColor(iPos, player);
+            posNew.setPlayer(opponent);
+            int value;
+            int isWin = posNew.isWinner();
+            if      (isWin == player) value = 10 - posNew.getTurnCount();
+            else if (isWin == 0     ) value = 0;
+            else                      value = -solve(posNew, solved, values);
+            if (value > bestValue) {
+                bestValue  = value;
+                bestSquare = 3*iPos.iR()+iPos.iC();
+            }
+        }
+        int score = Integer.signum(bestValue);
+        solved.put(key, TicTacToeTranspositionTable.pack(score, TicTacToePosition.SYMMETRY[symmetry][bestSquare]));
+        values.put(key, bestValue);
+        return bestValue;
+    }
+
+    public static void main( String[] args ) throws IOException {
+        Path file  = Paths.get(args.length > 0 ? args[0] : "src/c_minimax/"+RESOURCE);
+        long start = System.nanoTime();
+        generate(file);
+        long end   = System.nanoTime();
+        TicTacToeTablebase tablebase = load(file);
+        System.out.println("Wrote "+tablebase.size()+" positions ("+Files.size(file)+" bytes) to "+file
+                           +" in "+((end - start)/1000000)+" milliseconds");
+    }
+}
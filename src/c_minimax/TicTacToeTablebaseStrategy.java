@@ -0,0 +1,43 @@
+package c_minimax;
+
+public class TicTacToeTablebaseStrategy implements InterfaceStrategy {
+    // Answers from the precomputed TicTacToeTablebase with one lookup: no search, and nothing to warm up.
+    // Only a 3x3 TicTacToePosition has a tablebase; any other position (or one the tablebase does not hold)
+    //   is searched with alpha-beta instead.
+
+    private final TicTacToeTablebase tablebase = TicTacToeTablebase.shared();
+
+    @Override
+    public void getBestMove(InterfacePosition position, InterfaceSearchInfo context) {
+        // Note, return information is embedded in context
+        if (position instanceof TicTacToePosition) {
+            long startTime = System.nanoTime();
+            int raw      = (int) position.getRawPosition();
+            int symmetry = TicTacToePosition.canonicalSymmetry(raw);
+            int saved    = tablebase.get(TicTacToePosition.transform(raw, symmetry));
+            TicTacToeSearchInfo info = (TicTacToeSearchInfo) context;
+            info.getMetrics().probe(saved != InterfaceTranspositionTable.NOT_FOUND);
+            if (saved != InterfaceTranspositionTable.NOT_FOUND) {
+                int square = TicTacToePosition.SYMMETRY[TicTacToePosition.INVERSE[symmetry]][TicTacToeTranspositionTable.move(saved)];
+                InterfaceIterator iPos = new TicTacToeIterator(); iPos.set(square%3, square/3);
+                context.setBestMoveSoFar(iPos, TicTacToeTranspositionTable.score(saved));
+                info.addNodeCount(1);
+                long nanos = System.nanoTime() - startTime; // Before of(), which registers with JMX on first use
+                SearchStatistics.of("tablebase").record(info, nanos);
+                return;
+            }
+        }
+        new TicTacToeAlphaBetaStrategy().getBestMove(position, context);
+    }
+
+    @Override
+    public void setContext(InterfaceSearchInfo strategyContext) {
+        // Not used in this strategy
+    }
+
+    @Override
+    public InterfaceSearchInfo getContext() {
+        // Not used in this strategy
+        return null;
+    }
+}
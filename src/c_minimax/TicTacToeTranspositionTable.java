@@ -0,0 +1,109 @@
+package c_minimax;
+
+import java.util.Arrays;
+
+public class TicTacToeTranspositionTable implements InterfaceTranspositionTable {
+    // Open-addressing (linear probing) table over two parallel arrays (long keys, int values).
+    // Both arrays are allocated once in the constructor and never grow.
+    //   keys[]   - packed position; EMPTY_KEY marks a free slot
+    //   values[] - packed value stored for that position
+    // EMPTY_KEY (all bits set) is not a raw position: TicTacToePosition never stores color 3,
+    //   and KInARowPosition never sets the sign bit.
+    // Once the table is 3/4 full, new keys are dropped (it is a cache), but stored keys can still be updated.
+
+    static final int DEFAULT_CAPACITY = 1 << 15; // Only 5,478 legal positions exist
+    private static final long EMPTY_KEY = -1;
+
+    private final long[] keys;
+    private final int[]  values;
+    private final int   mask;
+    private final int   maxSize;
+    private int         size = 0;
+
+    TicTacToeTranspositionTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    TicTacToeTranspositionTable( int capacity ) {
+        int nSlots = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1; // Round up to a power of 2
+        keys    = new long[nSlots];
+        values  = new int[nSlots];
+        mask    = nSlots - 1;
+        maxSize = nSlots - (nSlots >>> 2);
+        clear();
+    }
+
+    // Packed value layout used by the strategies:
+    //   bits 0-7   score, from the point of view of the player to move (signed), in units of 1/SCORE_UNIT
+    //   bits 8-15  best move, as a square index (nC*iR+iC)
+    //   bits 16-17 bound type: whether score is the exact value, or only a bound on it (alpha-beta)
+    //   bits 18-25 depth (in moves) that was searched below this position
+    static final int BOUND_EXACT  = 0;
+    static final int BOUND_LOWER  = 1; // The value is at least score  (search failed high)
+    static final int BOUND_UPPER  = 2; // The value is at most  score  (search failed low)
+    static final int DEPTH_SOLVED = 0xFF; // Searched to the end of the game
+
+    static final float SCORE_UNIT = 100; // So that scores in [-1,1], heuristic (fractional) ones included, fit in 8 bits
+
+    static int   toScore(   float value ) { return Math.round(value * SCORE_UNIT); }
+    static float fromScore( int   score ) { return score / SCORE_UNIT;             }
+
+    static int pack( int score, int move ) { return pack(score, move, BOUND_EXACT, DEPTH_SOLVED); }
+    static int pack( int score, int move, int bound, int depth ) {
+        return (score & 0xFF) | ((move & 0xFF) << 8) | (bound << 16) | ((depth & 0xFF) << 18);
+    }
+    static int score( int value ) { return (byte) value;          }
+    static int move(  int value ) { return (value >>>  8) & 0xFF; }
+    static int bound( int value ) { return (value >>> 16) & 3;    }
+    static int depth( int value ) { return (value >>> 18) & 0xFF; }
+
+    private int slotOf( long key ) {
+        for ( int slot = hash(key); ; slot = (slot + 1) & mask ) { // Terminates since the table is never full
+            long stored = keys[slot];
+            if ( stored == key || stored == EMPTY_KEY ) return slot;
+        }
+    }
+
+    private int hash( long key ) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads the low (board) bits into the high bits
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+
+    @Override
+    public int get( long key ) {
+        int slot = slotOf(key);
+        return keys[slot] == EMPTY_KEY ? NOT_FOUND : values[slot];
+    }
+
+    @Override
+    public void put( long key, int value ) {
+        if ( key == EMPTY_KEY ) {
+            System.err.println("Error(TicTacToeTranspositionTable::put): key ("+key+") is reserved!!!");
+            return;
+        }
+        int slot = slotOf(key);
+        if ( keys[slot] == EMPTY_KEY ) {
+            if ( size >= maxSize ) return; // Full; drop the new entry
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public boolean containsKey( long key ) {
+        return keys[slotOf(key)] != EMPTY_KEY;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+    }
+
+    @Override public int size()     { return size;        }
+    @Override public int capacity() { return keys.length; }
+
+    @Override public void newSearch() { } // Entries do not age: a full table keeps every key it has (see put()),
+                                          //   and a stored key takes each new value, whatever its depth
+}
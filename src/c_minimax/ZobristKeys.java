@@ -0,0 +1,101 @@
+package c_minimax;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class ZobristKeys {
+    // Zobrist hashing for an nC x nR board: every (color, square) has a random 64-bit key, and so does "player 2 to move".
+    //   The key of a position is the XOR of the keys of its occupied squares (and of the player key if player 2 moves),
+    //   so setColor, clearColor and setPlayer update it with one XOR each, on any board size.
+    // Positions keep one key per symmetry of the board: keys[t] is the key of the position transformed by t.
+    //   The smallest of them (the canonical key) is the same for all symmetric positions, so they share table entries.
+    //   A square board has the 8 symmetries of the square; any other board the 4 of the rectangle.
+    // Symmetry t is rotate^(t/2) applied after flip^(t%2), as in TicTacToePosition
+    //   (a rectangle is only rotated by 180 degrees, so it has t = 0, 1, 4 and 5, numbered here 0..3).
+    // The random keys come from a fixed seed, so keys are the same in every run (e.g., for saved tables).
+
+    final int     nC, nR, nSquares, nSymmetries;
+    final int[][] symmetry; // symmetry[t][sq] is the square that sq (=nC*iR+iC) is moved to by symmetry t
+    final int[]   inverse;  // inverse[t] is the symmetry that undoes t
+    final long    playerKey;
+    private final long[] squareKeys; // [(color*nSquares + sq)*nSymmetries + t]: key of color at symmetry[t][sq]
+
+    private static final Map<Integer,ZobristKeys> cache = new HashMap<Integer,ZobristKeys>();
+
+    static synchronized ZobristKeys of( int nC, int nR ) {
+        Integer key = (nC << 16) | nR;
+        ZobristKeys keys = cache.get(key);
+        if (keys == null) {
+            keys = new ZobristKeys(nC, nR);
+            cache.put(key, keys);
+        }
+        return keys;
+    }
+
+    private ZobristKeys( int nC, int nR ) {
+        this.nC = nC; this.nR = nR; this.nSquares = nC*nR;
+        int[] transforms = nC == nR ? new int[] { 0, 1, 2, 3, 4, 5, 6, 7 } : new int[] { 0, 1, 4, 5 };
+        nSymmetries = transforms.length;
+
+        symmetry = new int[nSymmetries][nSquares];
+        for (int t = 0; t < nSymmetries; t++) {
+            for (int sq = 0; sq < nSquares; sq++) {
+                int iC = sq%nC, iR = sq/nC, w = nC, h = nR;
+                if (transforms[t]%2 == 1) { iC = w-1-iC; } // flip
+                for (int k = 0; k < transforms[t]/2; k++) { // rotate (as in TicTacToePosition.rotate())
+                    int temp = iC; iC = h-1-iR; iR = temp;
+                    temp = w; w = h; h = temp;
+                }
+                symmetry[t][sq] = nC*iR+iC;
+            }
+        }
+        inverse = new int[nSymmetries];
+        for (int t = 0; t < nSymmetries; t++) {
+            for (int u = 0; u < nSymmetries; u++) {
+                boolean undoes = true;
+                for (int sq = 0; sq < nSquares && undoes; sq++) undoes = symmetry[u][symmetry[t][sq]] == sq;
+                if (undoes) inverse[t] = u;
+            }
+        }
+
+        long seed = 0x5DEECE66DL ^ ((long) nC << 32) ^ nR; // Fixed, so that keys do not change between runs
+        long[] random = new long[3*nSquares];
+        for (int i = 0; i < random.length; i++) random[i] = splitMix64(seed += 0x9E3779B97F4A7C15L);
+        playerKey  = splitMix64(seed + 0x9E3779B97F4A7C15L);
+        squareKeys = new long[3*nSquares*nSymmetries];
+        for (int color = 1; color <= 2; color++) {
+            for (int sq = 0; sq < nSquares; sq++) {
+                for (int t = 0; t < nSymmetries; t++) {
+                    squareKeys[(color*nSquares + sq)*nSymmetries + t] = random[color*nSquares + symmetry[t][sq]];
+                }
+            }
+        }
+    }
+
+    private static long splitMix64( long z ) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    long[] newKeys() { // Keys of the empty board, player 1 to move
+        return new long[nSymmetries];
+    }
+
+    void toggleSquare( long[] keys, int square, int color ) { // Adds (or removes) color at square
+        int base = (color*nSquares + square)*nSymmetries;
+        for (int t = 0; t < nSymmetries; t++) keys[t] ^= squareKeys[base + t];
+    }
+
+    void togglePlayer( long[] keys ) {
+        for (int t = 0; t < nSymmetries; t++) keys[t] ^= playerKey;
+    }
+
+    static int canonicalSymmetry( long[] keys ) {
+        int best = 0;
+        for (int t = 1; t < keys.length; t++) {
+            if (keys[t] < keys[best]) best = t;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,88 @@
+package c_minimax;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    // Every board of BenchmarkPositions.allPositions(), scored one getBestMove() at a time (the unfinished ones)
+    //   and by TicTacToeBatchEvaluator in batches of each size. Both use a table warmed by one pass before the run,
+    //   as an analysis session would; reported per position.
+
+    @State(Scope.Thread)
+    public static class OneAtATime {
+        TicTacToePosition[]        unfinished;
+        TicTacToeAlphaBetaStrategy strategy;
+
+        @Setup
+        public void warm() {
+            unfinished = BenchmarkPositions.unfinishedPositions();
+            strategy   = new TicTacToeAlphaBetaStrategy(BenchmarkPositions.newTable());
+            BenchmarkPositions.bestMoves(strategy, unfinished);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batches {
+        @Param({ "1", "16", "256", "4096", "6046" })
+        public int batchSize;
+
+        long[]                  positions;
+        float[]                 scores;
+        int[]                   bestMoves;
+        ForkJoinPool            pool;
+        TicTacToeBatchEvaluator evaluator;
+
+        @Setup
+        public void warm() {
+            TicTacToePosition[] all = BenchmarkPositions.allPositions();
+            positions = new long[all.length];
+            for (int i = 0; i < all.length; i++) positions[i] = all[i].getRawPosition();
+            scores    = new float[positions.length];
+            bestMoves = new int[positions.length];
+            pool      = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            evaluator = new TicTacToeBatchEvaluator(pool, 3, 3, 3, BenchmarkPositions.newTable());
+            evaluator.evaluate(positions, 0, positions.length, scores, bestMoves);
+        }
+
+        @TearDown
+        public void shutdownPool() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_UNFINISHED)
+    public int getBestMove(OneAtATime state) {
+        return BenchmarkPositions.bestMoves(state.strategy, state.unfinished);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int evaluate(Batches state) {
+        long[] positions = state.positions;
+        for (int from = 0; from < positions.length; from += state.batchSize) {
+            state.evaluator.evaluate(positions, from, Math.min(from + state.batchSize, positions.length),
+                                     state.scores, state.bestMoves);
+        }
+        return state.bestMoves[positions.length-1];
+    }
+}
@@ -0,0 +1,99 @@
+package c_minimax;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkPositions {
+    // The positions the benchmarks run on. Their counts are constants, for @OperationsPerInvocation
+    //   (so that results are per position); they are checked when the positions are made.
+
+    static final int N_POSITIONS  = 6046; // Every 3x3 board with alternating counts (a superset of the 5,478 reachable ones)
+    static final int N_UNFINISHED = 4520; // Those with no line, and a free square
+    static final int N_REFERENCES = 6;
+
+    // Reference positions for getBestMove (x: cross, o: nought, .: empty; row by row), each with the player to move
+    static final String[] REFERENCE_BOARDS = {
+        ".........",   // Empty board
+        "....x....",   // Center opening
+        "x........",   // Corner opening
+        ".x.......",   // Edge opening
+        "x...o....",   // Corner, answered in the center
+        "x.o.x....",   // Middle game
+    };
+
+    private BenchmarkPositions() {  }
+
+    // Every board where the counts of crosses and noughts are consistent with alternating play; this includes
+    //   boards that play cannot reach (moves after a win, lines for both players), which the benchmarks keep as inputs
+    static TicTacToePosition[] allPositions() {
+        List<TicTacToePosition> positions = new ArrayList<TicTacToePosition>();
+        for (int code = 0; code < 19683; code++) { // 3^9 boards
+            TicTacToePosition position = new TicTacToePosition();
+            int nCross = 0, nNought = 0;
+            for (InterfaceIterator iPos = new TicTacToeIterator(); iPos.isInBounds(); iPos.increment()) {
+                int color = code;
+                for (int i = 0; i < 3*iPos.iR()+iPos.iC(); i++) color /= 3;
+                color %= 3;
+                if (color == 0) continue;
+                position.setColor(iPos, color);
+                if (color == 1) nCross++; else nNought++;
+            }
+            if (nCross == nNought || nCross == nNought+1) {
+                position.setPlayer(nCross == nNought ? 1 : 2);
+                positions.add(position);
+            }
+        }
+        return checked(positions, N_POSITIONS);
+    }
+
+    static TicTacToePosition[] unfinishedPositions() {
+        List<TicTacToePosition> unfinished = new ArrayList<TicTacToePosition>();
+        for (TicTacToePosition position : allPositions()) {
+            if (position.isWinner() == -1) unfinished.add(position);
+        }
+        return checked(unfinished, N_UNFINISHED);
+    }
+
+    static TicTacToePosition[] referencePositions() {
+        List<TicTacToePosition> positions = new ArrayList<TicTacToePosition>();
+        for (String board : REFERENCE_BOARDS) positions.add(position(board));
+        return checked(positions, N_REFERENCES);
+    }
+
+    static TicTacToePosition position(String board) {
+        TicTacToePosition position = new TicTacToePosition();
+        int nCross = 0, nNought = 0;
+        for (int square = 0; square < 9; square++) {
+            char mark = board.charAt(square);
+            if (mark == '.') continue;
+            InterfaceIterator iPos = new TicTacToeIterator(); iPos.set(square%3, square/3);
+            position.setColor(iPos, mark == 'x' ? 1 : 2);
+            if (mark == 'x') nCross++; else nNought++;
+        }
+        position.setPlayer(nCross == nNought ? 1 : 2);
+        return position;
+    }
+
+    static InterfaceTranspositionTable newTable() {
+        return new LockFreeTranspositionTable(TicTacToeTranspositionTable.DEFAULT_CAPACITY,
+                                              LockFreeTranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    // Plays getBestMove() from each position, each with a new context; returns a sum of the moves (for the blackhole)
+    static int bestMoves(InterfaceStrategy strategy, TicTacToePosition[] positions) {
+        int sink = 0;
+        for (TicTacToePosition position : positions) {
+            InterfaceSearchInfo context = new TicTacToeSearchInfo();
+            strategy.getBestMove(position, context);
+            sink += context.getBestMoveSoFar().iC();
+        }
+        return sink;
+    }
+
+    private static TicTacToePosition[] checked(List<TicTacToePosition> positions, int expected) {
+        if (positions.size() != expected) {
+            throw new IllegalStateException(positions.size()+" positions, not "+expected);
+        }
+        return positions.toArray(new TicTacToePosition[positions.size()]);
+    }
+}
@@ -0,0 +1,81 @@
+package c_minimax;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckersBenchmark {
+    // Checkers: perft (move generation and play, counting the leaves PERFT_DEPTH plies from the starting position;
+    //   reported per leaf), and a fixed-depth search of the starting position with an empty transposition table
+    //   (the nodes counter gives the time per node searched).
+
+    static final int  PERFT_DEPTH  = 9;
+    static final int  PERFT_LEAVES = 3963680; // Published count, checked before the run
+    static final int  SEARCH_DEPTH = 12;
+
+    @State(Scope.Benchmark)
+    public static class Perft {
+        @Setup
+        public void check() {
+            long leaves = new CheckersPosition().perft(PERFT_DEPTH);
+            if (leaves != PERFT_LEAVES) {
+                throw new IllegalStateException("perft(" + PERFT_DEPTH + ") is " + leaves + ", not " + PERFT_LEAVES);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        CheckersStrategy strategy;
+
+        @Setup(Level.Invocation)
+        public void newStrategy() {
+            strategy = new CheckersStrategy(new LockFreeTranspositionTable(
+                    CheckersStrategy.TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER));
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            nodes = 0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PERFT_LEAVES)
+    public long perft(Perft perft) {
+        return new CheckersPosition().perft(PERFT_DEPTH);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int search(ColdCache cache, Nodes nodes) {
+        TicTacToeSearchInfo context = new TicTacToeSearchInfo();
+        context.setMaxDepthSearchForThisPos(SEARCH_DEPTH);
+        cache.strategy.getBestMove(new CheckersPosition(), context);
+        nodes.nodes += context.getNodeCount();
+        return context.getBestMoveSoFar().iC();
+    }
+}
@@ -0,0 +1,100 @@
+package c_minimax;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderingBenchmark {
+    // TicTacToeAlphaBetaStrategy with each set of move ordering heuristics (see TicTacToeMoveOrdering), on
+    //   every reference position on 3x3, empty 4x4 boards (solved), and an empty 5x5 board to a fixed depth.
+    //   Each search starts with an empty transposition table. The nodes counter gives the time per node searched.
+
+    @Param({ "none", "ttMove", "ttMove+killers", "ttMove+history", "ttMove+priors", "all" })
+    public String heuristics;
+
+    @Param({ "3x3k3", "4x4k3", "4x4k4", "5x5k4.depth6" })
+    public String board;
+
+    private InterfacePosition[] positions;
+    private int                 flags;
+    private int                 maxDepth;
+    private TicTacToeAlphaBetaStrategy[] strategies; // One per position, each with a new table
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        switch (heuristics) {
+            case "none":           flags = TicTacToeMoveOrdering.NONE;                                          break;
+            case "ttMove":         flags = TicTacToeMoveOrdering.TT_MOVE;                                       break;
+            case "ttMove+killers": flags = TicTacToeMoveOrdering.TT_MOVE | TicTacToeMoveOrdering.KILLERS;        break;
+            case "ttMove+history": flags = TicTacToeMoveOrdering.TT_MOVE | TicTacToeMoveOrdering.HISTORY;        break;
+            case "ttMove+priors":  flags = TicTacToeMoveOrdering.TT_MOVE | TicTacToeMoveOrdering.PRIORS;         break;
+            case "all":            flags = TicTacToeMoveOrdering.ALL;                                           break;
+            default: throw new IllegalArgumentException("heuristics (" + heuristics + ")");
+        }
+        maxDepth = 0;
+        switch (board) {
+            case "3x3k3":        positions = BenchmarkPositions.referencePositions(); break;
+            case "4x4k3":        positions = emptyBoard(4, 4, 3);                     break;
+            case "4x4k4":        positions = emptyBoard(4, 4, 4);                     break;
+            case "5x5k4.depth6": positions = emptyBoard(5, 5, 4); maxDepth = 6;       break;
+            default: throw new IllegalArgumentException("board (" + board + ")");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newStrategies() {
+        strategies = new TicTacToeAlphaBetaStrategy[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            strategies[i] = new TicTacToeAlphaBetaStrategy(new LockFreeTranspositionTable(
+                    TicTacToeAlphaBetaStrategy.LARGE_TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.TWO_TIER), flags);
+        }
+    }
+
+    private static InterfacePosition[] emptyBoard(int nC, int nR, int nK) {
+        KInARowPosition position = new KInARowPosition(nC, nR, nK);
+        position.setPlayer(1);
+        return new InterfacePosition[] { position };
+    }
+
+    @Benchmark
+    public int search(Nodes nodes) {
+        int sink = 0;
+        for (int i = 0; i < positions.length; i++) {
+            TicTacToeSearchInfo context = new TicTacToeSearchInfo();
+            context.setMaxDepthSearchForThisPos(maxDepth);
+            strategies[i].getBestMove(positions[i], context);
+            nodes.nodes += context.getNodeCount();
+            sink += context.getBestMoveSoFar().iC();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,59 @@
+package c_minimax;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelBenchmark {
+    // Solves an empty 4x4 board (4 in a row) with TicTacToeParallelStrategy on each number of threads;
+    //   the speedup is the ratio to threads=1. Each search starts with an empty transposition table.
+    //   Counts above the number of cores can be given with -p threads=...
+
+    @Param({ "1", "2", "4" })
+    public int threads;
+
+    private ForkJoinPool              pool;
+    private TicTacToeParallelStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void startPool() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() { // Before the next count, so its workers are gone
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void newStrategy() {
+        strategy = new TicTacToeParallelStrategy(pool, new LockFreeTranspositionTable(
+                TicTacToeAlphaBetaStrategy.LARGE_TABLE_CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    @Benchmark
+    public int solve4x4k4() {
+        TicTacToeSearchInfo context = new TicTacToeSearchInfo();
+        strategy.getBestMove(new KInARowPosition(4, 4, 4), context);
+        return context.getBestMoveSoFar().iC();
+    }
+}
@@ -0,0 +1,117 @@
+package c_minimax;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionBenchmark {
+    // The TicTacToePosition primitives, over BenchmarkPositions.allPositions(); reported per call (per square for getColor).
+
+    private TicTacToePosition[] positions;
+    private int[]               freeSquares; // First free square of each position, -1 if none
+    private final InterfaceIterator           iPos  = new TicTacToeIterator();
+    private final InterfaceTranspositionTable table = new TicTacToeTranspositionTable();
+    private int                               status;
+
+    @Setup
+    public void setUp() {
+        positions   = BenchmarkPositions.allPositions();
+        freeSquares = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            freeSquares[i] = -1;
+            for (int square = 8; square >= 0; square--) {
+                if (positions[i].getColor(square) == 0) freeSquares[i] = square;
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() { // insertIntoHash: the first call inserts every position, later ones update them
+        table.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(9 * BenchmarkPositions.N_POSITIONS)
+    public int getColor() {
+        int sink = 0;
+        for (TicTacToePosition position : positions) {
+            for (int iR = 0; iR < 3; iR++) {
+                for (int iC = 0; iC < 3; iC++) sink += position.getColor(iC, iR);
+            }
+        }
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int setColor() { // Copies the position, then fills its first free square
+        int sink = 0;
+        for (int i = 0; i < positions.length; i++) {
+            TicTacToePosition posNew = new TicTacToePosition(positions[i]);
+            int square = freeSquares[i];
+            if (square >= 0) {
+                iPos.set(square%3, square/3);
+                posNew.setColor(iPos, positions[i].getPlayer());
+            }
+            sink += (int) posNew.getRawPosition();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int isWinner() {
+        int sink = 0;
+        for (TicTacToePosition position : positions) sink += position.isWinner();
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public float valuePosition() {
+        float sink = 0;
+        for (TicTacToePosition position : positions) sink += position.valuePosition();
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int flip() {
+        int sink = 0;
+        for (TicTacToePosition position : positions) sink += position.flip((int) position.getRawPosition());
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int rotate() {
+        int sink = 0;
+        for (TicTacToePosition position : positions) sink += position.rotate((int) position.getRawPosition());
+        return sink;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_POSITIONS)
+    public int insertIntoHash() {
+        status++;
+        for (TicTacToePosition position : positions) position.insertIntoHash(table, (int) position.getRawPosition(), status);
+        return table.size();
+    }
+}
@@ -0,0 +1,91 @@
+package c_minimax;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+    // A full getBestMove() from each reference position (BenchmarkPositions.REFERENCE_BOARDS); reported per position.
+    //   cold: every call has a new, empty transposition table (made outside the timing)
+    //   warm: one table for the whole run, filled by solving every reference position before the first call
+
+    @State(Scope.Benchmark)
+    public static class References {
+        TicTacToePosition[] positions;
+
+        @Setup
+        public void setUp() {
+            positions = BenchmarkPositions.referencePositions();
+            TicTacToeTablebase.shared(); // Loaded before the timing, as at startup
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        InterfaceTranspositionTable table;
+
+        @Setup(Level.Invocation)
+        public void newTable() {
+            table = BenchmarkPositions.newTable();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WarmCache {
+        InterfaceTranspositionTable minimaxTable, alphaBetaTable;
+
+        @Setup
+        public void fill(References references) {
+            minimaxTable   = BenchmarkPositions.newTable();
+            alphaBetaTable = BenchmarkPositions.newTable();
+            BenchmarkPositions.bestMoves(new TicTacToeStrategy(minimaxTable), references.positions);
+            BenchmarkPositions.bestMoves(new TicTacToeAlphaBetaStrategy(alphaBetaTable), references.positions);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_REFERENCES)
+    public int minimaxCold(References references, ColdCache cache) {
+        return BenchmarkPositions.bestMoves(new TicTacToeStrategy(cache.table), references.positions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_REFERENCES)
+    public int minimaxWarm(References references, WarmCache cache) {
+        return BenchmarkPositions.bestMoves(new TicTacToeStrategy(cache.minimaxTable), references.positions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_REFERENCES)
+    public int alphaBetaCold(References references, ColdCache cache) {
+        return BenchmarkPositions.bestMoves(new TicTacToeAlphaBetaStrategy(cache.table), references.positions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_REFERENCES)
+    public int alphaBetaWarm(References references, WarmCache cache) {
+        return BenchmarkPositions.bestMoves(new TicTacToeAlphaBetaStrategy(cache.alphaBetaTable), references.positions);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkPositions.N_REFERENCES)
+    public int tablebase(References references) {
+        return BenchmarkPositions.bestMoves(new TicTacToeTablebaseStrategy(), references.positions);
+    }
+}
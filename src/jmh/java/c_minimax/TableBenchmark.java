@@ -0,0 +1,98 @@
+package c_minimax;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class TableBenchmark {
+    // Transposition tables under contention: every core (or -t threads) runs a mix of 3 gets to 1 put over random keys;
+    //   reported per get or put. The table is cleared before each iteration.
+
+    static final int CAPACITY = 1 << 20;
+    static final int KEY_MASK = (1 << 19) - 1;
+
+    @Param({ "LockFreeTranspositionTable", "ConcurrentHashMap", "SynchronizedTranspositionTable" })
+    public String implementation;
+
+    private InterfaceTranspositionTable table;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        int x;
+
+        @Setup
+        public void seed(ThreadParams thread) {
+            x = (thread.getThreadIndex() + 1) * 0x9E3779B9;
+        }
+
+        long next() {
+            x ^= x << 13; x ^= x >>> 17; x ^= x << 5; // xorshift
+            return x & KEY_MASK;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void newTable() {
+        switch (implementation) {
+            case "LockFreeTranspositionTable":
+                table = new LockFreeTranspositionTable(CAPACITY, LockFreeTranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+                break;
+            case "ConcurrentHashMap":
+                table = concurrentHashMap();
+                break;
+            case "SynchronizedTranspositionTable":
+                table = new SynchronizedTranspositionTable(new TicTacToeTranspositionTable(CAPACITY));
+                break;
+            default: throw new IllegalArgumentException("implementation (" + implementation + ")");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        table.clear();
+    }
+
+    private static InterfaceTranspositionTable concurrentHashMap() { // Boxes, for comparison only
+        final Map<Long,Integer> map = new ConcurrentHashMap<Long,Integer>(CAPACITY);
+        return new InterfaceTranspositionTable() {
+            @Override public int     get( long key )            { Integer value = map.get(key); return value == null ? NOT_FOUND : value; }
+            @Override public void    put( long key, int value ) { map.put(key, value);     }
+            @Override public boolean containsKey( long key )    { return map.containsKey(key); }
+            @Override public void    clear()                    { map.clear();             }
+            @Override public int     size()                     { return map.size();       }
+            @Override public int     capacity()                 { return CAPACITY;         }
+            @Override public void    newSearch()                {                          }
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public int getAndPut(Keys keys) {
+        long key = keys.next();
+        table.put(key, (int) key & 0xFFFF);
+        return table.get(keys.next()) + table.get(keys.next()) + table.get(keys.next());
+    }
+}